@@ -0,0 +1,56 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.audit.AuditEventType;
+import com.example.demo.audit.AuditLog;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+// What recording an event costs the request thread: the ring buffer hand-off, against the synchronized
+// println the management controller used to do, here into a file instead of the console
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuditLogBenchmark {
+
+    private Path directory;
+    private AuditLog auditLog;
+    private PrintStream printStream;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("audit-benchmark");
+        auditLog = Fixtures.auditLog(directory.toString());
+        printStream = new PrintStream(new FileOutputStream(directory.resolve("println.log").toFile()), true);
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        auditLog.close();
+        printStream.close();
+        try (var files = Files.walk(directory)) {
+            files.sorted((a, b) -> b.compareTo(a)).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean ringBuffer() {
+        return auditLog.record(AuditEventType.STUDENT_UPDATED, "linda", "127.0.0.1", "1 Student{studentId=1, studentName='James Bond'}");
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void println() {
+        printStream.println("updateStudent");
+        printStream.println("1 Student{studentId=1, studentName='James Bond'}");
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.security.PreAuthorizeFastPathVoter;
+import com.example.demo.student.StudentManagementController;
+import com.example.demo.student.StudentRepository;
+import com.example.demo.student.StudentResponseCache;
+import com.example.demo.student.StudentStreamWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.aopalliance.intercept.MethodInvocation;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.access.ConfigAttribute;
+import org.springframework.security.access.expression.method.DefaultMethodSecurityExpressionHandler;
+import org.springframework.security.access.expression.method.ExpressionBasedAnnotationAttributeFactory;
+import org.springframework.security.access.expression.method.ExpressionBasedPreInvocationAdvice;
+import org.springframework.security.access.prepost.PreInvocationAuthorizationAdviceVoter;
+import org.springframework.security.access.prepost.PrePostAnnotationSecurityMetadataSource;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.util.SimpleMethodInvocation;
+
+import javax.servlet.http.HttpServletRequest;
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.demo.security.ApplicationUserRole.ADMINTRAINEE;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuthorizationBenchmark {
+
+    @Param({"getAllStudents", "deleteStudent"})
+    public String endpoint;
+
+    private MethodInvocation methodInvocation;
+    private Collection<ConfigAttribute> attributes;
+    private Authentication authentication;
+    private PreAuthorizeFastPathVoter fastPathVoter;
+    private PreInvocationAuthorizationAdviceVoter expressionVoter;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        StudentRepository studentRepository = new StudentRepository(Fixtures.inMemoryStorage(), Fixtures.studentConfig());
+        StudentResponseCache studentResponseCache = Fixtures.studentResponseCache();
+        StudentManagementController controller = new StudentManagementController(studentRepository,
+                Fixtures.studentBulkProcessor(studentRepository, studentResponseCache), new StudentStreamWriter(new ObjectMapper()),
+                studentResponseCache, Fixtures.auditLog(null), Fixtures.studentConfig());
+        Method method = "getAllStudents".equals(endpoint)
+                ? StudentManagementController.class.getMethod("getAllStudents", Integer.class, int.class, int.class)
+                : StudentManagementController.class.getMethod("deleteStudent", Integer.class, HttpServletRequest.class);
+        methodInvocation = new SimpleMethodInvocation(controller, method);
+
+        DefaultMethodSecurityExpressionHandler expressionHandler = new DefaultMethodSecurityExpressionHandler();
+        attributes = new PrePostAnnotationSecurityMetadataSource(new ExpressionBasedAnnotationAttributeFactory(expressionHandler))
+                .getAttributes(method, StudentManagementController.class);
+        ExpressionBasedPreInvocationAdvice expressionAdvice = new ExpressionBasedPreInvocationAdvice();
+        expressionAdvice.setExpressionHandler(expressionHandler);
+
+        expressionVoter = new PreInvocationAuthorizationAdviceVoter(expressionAdvice);
+        fastPathVoter = new PreAuthorizeFastPathVoter();
+        authentication = new UsernamePasswordAuthenticationToken("tom", null, ADMINTRAINEE.getGrantedAuthorities());
+    }
+
+    @Benchmark
+    public int fastPathVoter() {
+        return fastPathVoter.vote(authentication, methodInvocation, attributes);
+    }
+
+    @Benchmark
+    public int expressionVoter() {
+        return expressionVoter.vote(authentication, methodInvocation, attributes);
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.audit.AuditConfig;
+import com.example.demo.audit.AuditLog;
+import com.example.demo.auth.ApplicationUserConfig;
+import com.example.demo.jwt.JwtConfig;
+import com.example.demo.jwt.JwtKeyRing;
+import com.example.demo.jwt.JwtTokenAuthenticator;
+import com.example.demo.jwt.JwtTokenCache;
+import com.example.demo.jwt.JwtTokenIssuer;
+import com.example.demo.jwt.RefreshTokenStore;
+import com.example.demo.jwt.TokenRevocationService;
+import com.example.demo.security.LoginThrottle;
+import com.example.demo.security.LoginThrottleConfig;
+import com.example.demo.security.SecurityMetrics;
+import com.example.demo.storage.StorageConfig;
+import com.example.demo.storage.StorageEngine;
+import com.example.demo.student.StudentBulkProcessor;
+import com.example.demo.student.StudentConfig;
+import com.example.demo.student.StudentRepository;
+import com.example.demo.student.StudentResponseCache;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+
+final class Fixtures {
+
+    private Fixtures() {
+    }
+
+    static JwtConfig jwtConfig(boolean compactAuthorities, long tokenCacheMaximumSize) {
+        JwtConfig jwtConfig = new JwtConfig();
+        jwtConfig.setSecretKey("securesecuresecuresecuresecuresecuresecuresecuresecuresecuresecure");
+        jwtConfig.setSecretKeyId("default");
+        jwtConfig.setTokenPrefix("Bearer ");
+        jwtConfig.setAccessTokenExpirationSeconds(900L);
+        jwtConfig.setRefreshTokenExpirationSeconds(1_209_600L);
+        jwtConfig.setRefreshTokenFamilyLifetimeSeconds(2_592_000L);
+        jwtConfig.setTokenCacheMaximumSize(tokenCacheMaximumSize);
+        jwtConfig.setTokenCacheTtlSeconds(300);
+        jwtConfig.setCompactAuthorities(compactAuthorities);
+        jwtConfig.setLoginRequestMaxBytes(4096);
+        jwtConfig.setRevocationExpectedTokens(100_000);
+        jwtConfig.setRevocationFalsePositiveRate(0.001);
+        return jwtConfig;
+    }
+
+    // Holds only the application.jwt.secretKey HMAC key, like a deployment without a keystore
+    static JwtKeyRing jwtKeyRing(JwtConfig jwtConfig) {
+        return new JwtKeyRing(jwtConfig, new JwtTokenCache(jwtConfig));
+    }
+
+    // A real registry, so the benchmarks pay the same recording cost as the application
+    static SecurityMetrics securityMetrics() {
+        return new SecurityMetrics(new SimpleMeterRegistry());
+    }
+
+    static TokenRevocationService tokenRevocationService(JwtConfig jwtConfig) {
+        return new TokenRevocationService(jwtConfig, inMemoryStorage());
+    }
+
+    static JwtTokenIssuer jwtTokenIssuer(JwtConfig jwtConfig,
+                                         JwtKeyRing jwtKeyRing,
+                                         TokenRevocationService tokenRevocationService) {
+        return new JwtTokenIssuer(jwtKeyRing, jwtConfig, securityMetrics(), tokenRevocationService);
+    }
+
+    static JwtTokenAuthenticator jwtTokenAuthenticator(JwtConfig jwtConfig,
+                                                       JwtKeyRing jwtKeyRing,
+                                                       TokenRevocationService tokenRevocationService) {
+        return new JwtTokenAuthenticator(jwtKeyRing, jwtConfig, new JwtTokenCache(jwtConfig), securityMetrics(),
+                tokenRevocationService, auditLog(null));
+    }
+
+    static RefreshTokenStore refreshTokenStore(JwtConfig jwtConfig, TokenRevocationService tokenRevocationService) {
+        return new RefreshTokenStore(jwtConfig, tokenRevocationService, inMemoryStorage());
+    }
+
+    static ApplicationUserConfig applicationUserConfig() {
+        ApplicationUserConfig applicationUserConfig = new ApplicationUserConfig();
+        applicationUserConfig.setExpectedUsers(10_000);
+        applicationUserConfig.setUsernameFalsePositiveRate(0.01);
+        return applicationUserConfig;
+    }
+
+    static StudentConfig studentConfig() {
+        StudentConfig studentConfig = new StudentConfig();
+        studentConfig.setMaximumStudentId(100_000_000);
+        studentConfig.setMaximumPageSize(1000);
+        studentConfig.setBulkBatchSize(1000);
+        studentConfig.setResponseCacheMaximumSize(10_000L);
+        return studentConfig;
+    }
+
+    static StudentResponseCache studentResponseCache() {
+        return new StudentResponseCache(new ObjectMapper(), studentConfig());
+    }
+
+    static StudentBulkProcessor studentBulkProcessor(StudentRepository studentRepository, StudentResponseCache studentResponseCache) {
+        return new StudentBulkProcessor(studentRepository, studentResponseCache, auditLog(null), new ObjectMapper(), studentConfig());
+    }
+
+    static LoginThrottle loginThrottle() {
+        LoginThrottleConfig loginThrottleConfig = new LoginThrottleConfig();
+        loginThrottleConfig.setEnabled(true);
+        loginThrottleConfig.setAddressAttempts(30);
+        loginThrottleConfig.setAddressPeriodSeconds(60L);
+        loginThrottleConfig.setUsernameFailures(5);
+        loginThrottleConfig.setUsernamePeriodSeconds(300L);
+        loginThrottleConfig.setMaximumKeys(100_000L);
+        return new LoginThrottle(loginThrottleConfig, new SimpleMeterRegistry());
+    }
+
+    // Disabled when directory is null
+    static AuditLog auditLog(String directory) {
+        AuditConfig auditConfig = new AuditConfig();
+        auditConfig.setEnabled(directory != null);
+        auditConfig.setDirectory(directory);
+        auditConfig.setBufferCapacity(8192);
+        auditConfig.setBatchSize(512);
+        auditConfig.setIdleMillis(5L);
+        auditConfig.setMaxFileBytes(10_485_760L);
+        auditConfig.setMaxFiles(10);
+        try {
+            return new AuditLog(auditConfig, new SimpleMeterRegistry());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static StorageEngine inMemoryStorage() {
+        StorageConfig storageConfig = new StorageConfig();
+        storageConfig.setEnabled(false);
+        return new StorageEngine(storageConfig);
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.jwt.LoginRequestReader;
+import com.example.demo.jwt.UsernameAndPasswordAuthenticationRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+// Compares the three ways of reading a login body: what the filter used to do (a new ObjectMapper per
+// request), a shared pre-warmed ObjectReader, and the streaming LoginRequestReader the filter uses now.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoginRequestParsingBenchmark {
+
+    private static final byte[] BODY = "{\"username\":\"annasmith\",\"password\":\"password\"}"
+            .getBytes(StandardCharsets.UTF_8);
+
+    private ObjectReader sharedReader;
+    private LoginRequestReader loginRequestReader;
+
+    @Setup
+    public void setUp() throws IOException {
+        sharedReader = new ObjectMapper().readerFor(UsernameAndPasswordAuthenticationRequest.class);
+        sharedReader.readValue(BODY);
+        loginRequestReader = new LoginRequestReader(4096);
+    }
+
+    @Benchmark
+    public UsernameAndPasswordAuthenticationRequest newObjectMapper() throws IOException {
+        return new ObjectMapper().readValue(new ByteArrayInputStream(BODY), UsernameAndPasswordAuthenticationRequest.class);
+    }
+
+    @Benchmark
+    public UsernameAndPasswordAuthenticationRequest sharedObjectReader() throws IOException {
+        return sharedReader.readValue(new ByteArrayInputStream(BODY));
+    }
+
+    @Benchmark
+    public UsernameAndPasswordAuthenticationRequest streamingReader() {
+        return loginRequestReader.read(new ByteArrayInputStream(BODY), BODY.length);
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.security.LoginThrottle;
+import com.example.demo.security.LoginThrottledException;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// What a login costs before BCrypt is reached: a fresh address per attempt, and a single address
+// flooding past its limit, where every attempt is turned away
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoginThrottleBenchmark {
+
+    private LoginThrottle loginThrottle;
+    private String[] addresses;
+    private final AtomicInteger next = new AtomicInteger();
+
+    @Setup
+    public void setUp() {
+        loginThrottle = Fixtures.loginThrottle();
+        addresses = new String[65_536];
+        for (int i = 0; i < addresses.length; i++) {
+            addresses[i] = "10.0." + (i >> 8) + "." + (i & 0xff);
+        }
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean spreadAddresses() {
+        return acquire(addresses[next.getAndIncrement() & (addresses.length - 1)]);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean floodingAddress() {
+        return acquire("203.0.113.7");
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean lockedUsername() {
+        try {
+            loginThrottle.checkUsername("annasmith");
+            loginThrottle.recordFailure("annasmith");
+            return true;
+        } catch (LoginThrottledException e) {
+            return false;
+        }
+    }
+
+    private boolean acquire(String address) {
+        try {
+            loginThrottle.acquireAddress(address);
+            return true;
+        } catch (LoginThrottledException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.security.ApplicationUserRole;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RoleAuthoritiesBenchmark {
+
+    @Param({"ADMIN", "STUDENT"})
+    public ApplicationUserRole role;
+
+    @Benchmark
+    public Set<SimpleGrantedAuthority> getGrantedAuthorities() {
+        return role.getGrantedAuthorities();
+    }
+
+    // What getGrantedAuthorities did before the sets were precomputed, kept as the reference point
+    @Benchmark
+    public Set<SimpleGrantedAuthority> streamGrantedAuthorities() {
+        Set<SimpleGrantedAuthority> permissions = role.getPermissions().stream()
+                .map(permission -> new SimpleGrantedAuthority(permission.getPermission()))
+                .collect(Collectors.toSet());
+        permissions.add(new SimpleGrantedAuthority("ROLE_" + role.name()));
+        return permissions;
+    }
+}
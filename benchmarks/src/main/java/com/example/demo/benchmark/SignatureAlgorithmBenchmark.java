@@ -0,0 +1,76 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.jwt.JwtConfig;
+import com.example.demo.jwt.JwtKeyRing;
+import com.example.demo.jwt.JwtTokenVerifier;
+import com.example.demo.jwt.TokenRevocationService;
+import com.google.common.collect.ImmutableMap;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import javax.crypto.SecretKey;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import java.io.IOException;
+import java.security.KeyPair;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.demo.security.ApplicationUserRole.ADMIN;
+
+// Verify cost per request for a symmetric key against the public key a verification-only node would hold.
+// With the verified-token cache on, only the first request of each token pays for the signature.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SignatureAlgorithmBenchmark {
+
+    @Param({"HS256", "ES256"})
+    public String algorithm;
+
+    @Param({"0", "10000"})
+    public long tokenCacheMaximumSize;
+
+    private JwtTokenVerifier verifier;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+    private FilterChain filterChain;
+
+    @Setup
+    public void setUp() {
+        JwtConfig jwtConfig = Fixtures.jwtConfig(true, tokenCacheMaximumSize);
+        JwtKeyRing jwtKeyRing = Fixtures.jwtKeyRing(jwtConfig);
+        if (SignatureAlgorithm.HS256.name().equals(algorithm)) {
+            SecretKey secretKey = Keys.secretKeyFor(SignatureAlgorithm.HS256);
+            jwtKeyRing.install(ImmutableMap.of("hs256", secretKey), "hs256", secretKey);
+        } else {
+            KeyPair keyPair = Keys.keyPairFor(SignatureAlgorithm.ES256);
+            jwtKeyRing.install(ImmutableMap.of("es256", keyPair.getPublic()), "es256", keyPair.getPrivate());
+        }
+
+        TokenRevocationService tokenRevocationService = Fixtures.tokenRevocationService(jwtConfig);
+        verifier = new JwtTokenVerifier(jwtConfig, Fixtures.jwtTokenAuthenticator(jwtConfig, jwtKeyRing, tokenRevocationService));
+        String token = Fixtures.jwtTokenIssuer(jwtConfig, jwtKeyRing, tokenRevocationService)
+                .issueAccessToken("linda", ADMIN.getGrantedAuthorities());
+
+        request = new MockHttpServletRequest("GET", "/management/api/v1/students");
+        request.addHeader("Authorization", jwtConfig.getTokenPrefix() + token);
+        response = new MockHttpServletResponse();
+        filterChain = (servletRequest, servletResponse) -> { };
+    }
+
+    @Benchmark
+    public Authentication doFilterInternal() throws IOException, ServletException {
+        verifier.doFilter(request, response, filterChain);
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+}
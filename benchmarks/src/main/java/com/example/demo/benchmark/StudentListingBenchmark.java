@@ -0,0 +1,112 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.student.Student;
+import com.example.demo.student.StudentRepository;
+import com.example.demo.student.StudentStreamWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterators;
+import com.google.common.io.ByteStreams;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Listing the whole table the old way (every row collected into a List, then serialized) against streaming
+// the rows straight into the output, for the full body and for the first bytes a client would see, and a
+// keyset page against an offset page from the middle of the table. Run with -prof gc: the allocation per
+// listing is the heap the request needs.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class StudentListingBenchmark {
+
+    private static final int PAGE_SIZE = 100;
+
+    @Param({"10000", "1000000", "10000000"})
+    public int rows;
+
+    private StudentRepository studentRepository;
+    private ObjectMapper objectMapper;
+    private StudentStreamWriter studentStreamWriter;
+
+    @Setup
+    public void setUp() {
+        studentRepository = new StudentRepository(Fixtures.inMemoryStorage(), Fixtures.studentConfig());
+        for (int studentId = studentRepository.countStudents() + 1; studentId <= rows; studentId++) {
+            studentRepository.insertStudent(new Student(studentId, "Student " + studentId));
+        }
+        objectMapper = new ObjectMapper();
+        studentStreamWriter = new StudentStreamWriter(objectMapper);
+    }
+
+    @Benchmark
+    public void materializedList() throws IOException {
+        objectMapper.writeValue(ByteStreams.nullOutputStream(), studentRepository.selectStudents(0, rows));
+    }
+
+    @Benchmark
+    public void streamed() throws IOException {
+        studentStreamWriter.write(studentRepository.iterateStudentsAfter(0), ByteStreams.nullOutputStream());
+    }
+
+    @Benchmark
+    public void materializedListFirstByte() throws IOException {
+        try {
+            objectMapper.writeValue(new FirstByteOutputStream(), studentRepository.selectStudents(0, rows));
+        } catch (FirstByteWritten ignored) {
+        }
+    }
+
+    @Benchmark
+    public void streamedFirstByte() throws IOException {
+        try {
+            studentStreamWriter.write(studentRepository.iterateStudentsAfter(0), new FirstByteOutputStream());
+        } catch (FirstByteWritten ignored) {
+        }
+    }
+
+    @Benchmark
+    public List<Student> offsetPage() {
+        return studentRepository.selectStudents(rows / 2 / PAGE_SIZE, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<Student> keysetPage() {
+        return ImmutableList.copyOf(Iterators.limit(studentRepository.iterateStudentsAfter(rows / 2), PAGE_SIZE));
+    }
+
+    // Stops the listing at the first write, which is when the first bytes would go out on the socket
+    private static class FirstByteOutputStream extends OutputStream {
+
+        @Override
+        public void write(int b) throws IOException {
+            throw FirstByteWritten.INSTANCE;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            throw FirstByteWritten.INSTANCE;
+        }
+    }
+
+    // An IOException, which Jackson passes through as it is instead of wrapping
+    private static class FirstByteWritten extends IOException {
+
+        private static final FirstByteWritten INSTANCE = new FirstByteWritten();
+
+        private FirstByteWritten() {
+            super("First byte written");
+        }
+
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.student.Student;
+import com.example.demo.student.StudentRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class StudentLookupBenchmark {
+
+    @Param({"3", "10000", "1000000"})
+    public int students;
+
+    private StudentRepository studentRepository;
+    private List<Student> studentList;
+
+    @Setup
+    public void setUp() {
+        studentRepository = new StudentRepository(Fixtures.inMemoryStorage(), Fixtures.studentConfig());
+        studentList = new ArrayList<>(students);
+        for (int studentId = 1; studentId <= students; studentId++) {
+            Student student = new Student(studentId, "Student " + studentId);
+            if (studentId > 3) {
+                studentRepository.insertStudent(student);
+            }
+            studentList.add(student);
+        }
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Optional<Student> selectStudentById() {
+        return studentRepository.selectStudentById(ThreadLocalRandom.current().nextInt(1, students + 1));
+    }
+
+    // The linear scan StudentController used to do over its static list
+    @Benchmark
+    @Threads(4)
+    public Optional<Student> streamScan() {
+        Integer studentId = ThreadLocalRandom.current().nextInt(1, students + 1);
+        return studentList.stream()
+                .filter(student -> studentId.equals(student.getStudentId()))
+                .findFirst();
+    }
+}
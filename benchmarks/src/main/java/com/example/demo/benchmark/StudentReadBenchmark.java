@@ -0,0 +1,56 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.student.Student;
+import com.example.demo.student.StudentRepository;
+import com.example.demo.student.StudentResponseCache;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// What a polled single student read costs StudentController once the student is looked up: serializing it
+// on every call like getStudent used to, taking the cached bytes, and answering a conditional GET that
+// carries the current ETag, which needs neither.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StudentReadBenchmark {
+
+    private static final int STUDENT_ID = 2;
+
+    private StudentRepository studentRepository;
+    private ObjectMapper objectMapper;
+    private StudentResponseCache studentResponseCache;
+    private String ifNoneMatch;
+
+    @Setup
+    public void setUp() {
+        studentRepository = new StudentRepository(Fixtures.inMemoryStorage(), Fixtures.studentConfig());
+        objectMapper = new ObjectMapper();
+        studentResponseCache = Fixtures.studentResponseCache();
+        ifNoneMatch = studentResponseCache.etagOf(student());
+    }
+
+    @Benchmark
+    public byte[] serializeEveryTime() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(student());
+    }
+
+    @Benchmark
+    public byte[] cachedBody() {
+        return studentResponseCache.serialize(student());
+    }
+
+    @Benchmark
+    public boolean notModified() {
+        return ifNoneMatch.equals(studentResponseCache.etagOf(student()));
+    }
+
+    private Student student() {
+        return studentRepository.selectStudentById(STUDENT_ID).orElseThrow();
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.jwt.JwtConfig;
+import com.example.demo.jwt.JwtTokenIssuer;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.example.demo.security.ApplicationUserRole.ADMIN;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenMintingBenchmark {
+
+    @Param({"true", "false"})
+    public boolean compactAuthorities;
+
+    private JwtTokenIssuer issuer;
+    private Authentication authResult;
+
+    @Setup
+    public void setUp() {
+        JwtConfig jwtConfig = Fixtures.jwtConfig(compactAuthorities, 10_000);
+        issuer = Fixtures.jwtTokenIssuer(jwtConfig, Fixtures.jwtKeyRing(jwtConfig), Fixtures.tokenRevocationService(jwtConfig));
+        authResult = new UsernamePasswordAuthenticationToken("linda", null, ADMIN.getGrantedAuthorities());
+    }
+
+    @Benchmark
+    public String issueAccessToken() {
+        return issuer.issueAccessToken(authResult.getName(), authResult.getAuthorities());
+    }
+}
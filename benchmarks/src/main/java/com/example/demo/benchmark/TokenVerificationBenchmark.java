@@ -0,0 +1,63 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.jwt.JwtConfig;
+import com.example.demo.jwt.JwtKeyRing;
+import com.example.demo.jwt.JwtTokenVerifier;
+import com.example.demo.jwt.TokenRevocationService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.demo.security.ApplicationUserRole.ADMIN;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenVerificationBenchmark {
+
+    // A maximum size of 0 turns the verified-token cache off, every request pays for full verification
+    @Param({"10000", "0"})
+    public long tokenCacheMaximumSize;
+
+    @Param({"true", "false"})
+    public boolean compactAuthorities;
+
+    private JwtTokenVerifier verifier;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+    private FilterChain filterChain;
+
+    @Setup
+    public void setUp() {
+        JwtConfig jwtConfig = Fixtures.jwtConfig(compactAuthorities, tokenCacheMaximumSize);
+        TokenRevocationService tokenRevocationService = Fixtures.tokenRevocationService(jwtConfig);
+        JwtKeyRing jwtKeyRing = Fixtures.jwtKeyRing(jwtConfig);
+        verifier = new JwtTokenVerifier(jwtConfig, Fixtures.jwtTokenAuthenticator(jwtConfig, jwtKeyRing, tokenRevocationService));
+
+        String token = Fixtures.jwtTokenIssuer(jwtConfig, jwtKeyRing, tokenRevocationService)
+                .issueAccessToken("linda", ADMIN.getGrantedAuthorities());
+
+        request = new MockHttpServletRequest("GET", "/management/api/v1/students");
+        request.addHeader("Authorization", jwtConfig.getTokenPrefix() + token);
+        response = new MockHttpServletResponse();
+        filterChain = (servletRequest, servletResponse) -> { };
+    }
+
+    @Benchmark
+    public Authentication doFilterInternal() throws IOException, ServletException {
+        verifier.doFilter(request, response, filterChain);
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.auth.ApplicationUserDao;
+import com.example.demo.auth.ApplicationUserService;
+import com.example.demo.auth.FakeApplicationUserDaoService;
+import com.example.demo.auth.InMemoryApplicationUserDaoService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserLookupBenchmark {
+
+    private static final char[] UNKNOWN_USERNAME = "admin@example.com".toCharArray();
+
+    @Param({"inMemory", "fake"})
+    public String dao;
+
+    private ApplicationUserService applicationUserService;
+
+    @Setup
+    public void setUp() throws IOException {
+        PasswordEncoder passwordEncoder = new BCryptPasswordEncoder(10);
+        ApplicationUserDao applicationUserDao = "fake".equals(dao)
+                ? new FakeApplicationUserDaoService(passwordEncoder)
+                : new InMemoryApplicationUserDaoService(passwordEncoder, Fixtures.applicationUserConfig(), Fixtures.inMemoryStorage());
+        applicationUserService = new ApplicationUserService(applicationUserDao, Fixtures.loginThrottle());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public UserDetails loadUserByUsername() {
+        return applicationUserService.loadUserByUsername("tom");
+    }
+
+    // The credential stuffing case: the username is freshly parsed from a login body and does not exist
+    @Benchmark
+    @Threads(4)
+    public boolean loadUnknownUser() {
+        try {
+            applicationUserService.loadUserByUsername(new String(UNKNOWN_USERNAME));
+            return true;
+        } catch (UsernameNotFoundException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,261 @@
+package com.example.demo.loadtest;
+
+import com.example.demo.DemoApplication;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+// Open-model load generator for the secured API.
+//
+//   java -cp target/benchmarks.jar -Drate=500 -Dduration=30 com.example.demo.loadtest.LoadTest
+//
+// Requests are scheduled at a fixed rate and every latency is measured from the moment the request was
+// *supposed* to start, so a stalled server shows up in the histogram instead of silently slowing the
+// generator down (coordinated omission). Set -Dtarget=http://host:port to test a running server instead
+// of booting one in-process; any other -Dapp.* property is passed to the in-process app without the prefix.
+public class LoadTest {
+
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(1);
+    private static final long DRAIN_MILLIS = 5_000;
+
+    private final HttpClient httpClient;
+    private final String baseUrl;
+    private final Map<Endpoint, Recorder> recorders = new EnumMap<>(Endpoint.class);
+    private final Map<Endpoint, LongAdder> errors = new EnumMap<>(Endpoint.class);
+    private final Queue<Integer> createdStudentIds = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger nextStudentId = new AtomicInteger(1_000_000);
+    private final Map<String, String> tokens = new HashMap<>();
+
+    private LoadTest(String baseUrl) {
+        this.baseUrl = baseUrl;
+        this.httpClient = HttpClient.newBuilder()
+                .executor(Executors.newFixedThreadPool(Integer.getInteger("clientThreads", 8)))
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        for (Endpoint endpoint : Endpoint.values()) {
+            recorders.put(endpoint, new Recorder(HIGHEST_TRACKABLE_NANOS, 3));
+            errors.put(endpoint, new LongAdder());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int rate = Integer.getInteger("rate", 200);
+        int warmupSeconds = Integer.getInteger("warmup", 5);
+        int durationSeconds = Integer.getInteger("duration", 30);
+
+        ConfigurableApplicationContext context = null;
+        String baseUrl = System.getProperty("target");
+        if (baseUrl == null) {
+            context = SpringApplication.run(DemoApplication.class, appArguments());
+            baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        }
+
+        try {
+            LoadTest loadTest = new LoadTest(baseUrl);
+            loadTest.login("annasmith");
+            loadTest.login("tom");
+            loadTest.login("linda");
+
+            System.out.printf("Warming up for %d s at %d req/s against %s%n", warmupSeconds, rate, baseUrl);
+            loadTest.run(rate, warmupSeconds);
+            loadTest.reset();
+
+            System.out.printf("Measuring for %d s at %d req/s%n", durationSeconds, rate);
+            loadTest.run(rate, durationSeconds);
+            loadTest.report(durationSeconds);
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+            System.exit(0);
+        }
+    }
+
+    private static String[] appArguments() {
+        List<String> arguments = new ArrayList<>();
+        arguments.add("--server.port=0");
+        arguments.add("--application.storage.enabled=false");
+        for (String name : System.getProperties().stringPropertyNames()) {
+            if (name.startsWith("app.")) {
+                arguments.add("--" + name.substring("app.".length()) + "=" + System.getProperty(name));
+            }
+        }
+        return arguments.toArray(new String[0]);
+    }
+
+    private void login(String username) throws Exception {
+        HttpResponse<Void> response = httpClient.send(
+                HttpRequest.newBuilder(URI.create(baseUrl + "/login"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(
+                                "{\"username\":\"" + username + "\",\"password\":\"password\"}"))
+                        .build(),
+                HttpResponse.BodyHandlers.discarding()
+        );
+        String authorization = response.headers().firstValue("Authorization")
+                .orElseThrow(() -> new IllegalStateException("Login failed for " + username + ": " + response.statusCode()));
+        tokens.put(username, authorization);
+    }
+
+    private void run(int rate, int seconds) throws InterruptedException {
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+        long start = System.nanoTime();
+        long requests = (long) rate * seconds;
+
+        for (long i = 0; i < requests; i++) {
+            long intendedStart = start + i * intervalNanos;
+            long wait = intendedStart - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            fire(Endpoint.pick(), intendedStart);
+        }
+
+        // Let in-flight requests land before the histograms are read
+        Thread.sleep(DRAIN_MILLIS);
+    }
+
+    private void fire(Endpoint endpoint, long intendedStart) {
+        HttpRequest request = endpoint.request(this);
+        httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, failure) -> {
+                    long latency = System.nanoTime() - intendedStart;
+                    recorders.get(endpoint).recordValue(Math.min(latency, HIGHEST_TRACKABLE_NANOS));
+                    if (failure != null || response.statusCode() >= 300) {
+                        errors.get(endpoint).increment();
+                    }
+                });
+    }
+
+    private void reset() {
+        for (Endpoint endpoint : Endpoint.values()) {
+            recorders.get(endpoint).reset();
+            errors.get(endpoint).reset();
+        }
+    }
+
+    private void report(int durationSeconds) {
+        System.out.printf("%-24s %9s %8s %10s %10s %10s %10s %10s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        Histogram total = new Histogram(HIGHEST_TRACKABLE_NANOS, 3);
+        for (Endpoint endpoint : Endpoint.values()) {
+            Histogram histogram = recorders.get(endpoint).getIntervalHistogram();
+            total.add(histogram);
+            print(endpoint.name(), histogram, errors.get(endpoint).sum(), durationSeconds);
+        }
+        print("TOTAL", total, errors.values().stream().mapToLong(LongAdder::sum).sum(), durationSeconds);
+    }
+
+    private static void print(String name, Histogram histogram, long errors, int durationSeconds) {
+        System.out.printf("%-24s %9d %8d %10.1f %10.2f %10.2f %10.2f %10.2f%n",
+                name,
+                histogram.getTotalCount(),
+                errors,
+                (double) histogram.getTotalCount() / durationSeconds,
+                millis(histogram.getValueAtPercentile(50)),
+                millis(histogram.getValueAtPercentile(99)),
+                millis(histogram.getValueAtPercentile(99.9)),
+                millis(histogram.getMaxValue()));
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private HttpRequest.Builder authorized(String username, String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Authorization", tokens.get(username))
+                .header("Content-Type", "application/json");
+    }
+
+    private enum Endpoint {
+        GET_STUDENT(70) {
+            @Override
+            HttpRequest request(LoadTest loadTest) {
+                int studentId = ThreadLocalRandom.current().nextInt(1, 4);
+                return loadTest.authorized("annasmith", "/api/v1/students/" + studentId).GET().build();
+            }
+        },
+        LIST_STUDENTS(15) {
+            @Override
+            HttpRequest request(LoadTest loadTest) {
+                return loadTest.authorized("tom", "/management/api/v1/students").GET().build();
+            }
+        },
+        CREATE_STUDENT(5) {
+            @Override
+            HttpRequest request(LoadTest loadTest) {
+                int studentId = loadTest.nextStudentId.getAndIncrement();
+                loadTest.createdStudentIds.add(studentId);
+                return loadTest.authorized("linda", "/management/api/v1/students")
+                        .POST(body(studentId, "Load " + studentId))
+                        .build();
+            }
+        },
+        UPDATE_STUDENT(5) {
+            @Override
+            HttpRequest request(LoadTest loadTest) {
+                int studentId = ThreadLocalRandom.current().nextInt(1, 4);
+                return loadTest.authorized("linda", "/management/api/v1/students/" + studentId)
+                        .PUT(body(studentId, "Updated " + studentId))
+                        .build();
+            }
+        },
+        DELETE_STUDENT(5) {
+            @Override
+            HttpRequest request(LoadTest loadTest) {
+                Integer studentId = loadTest.createdStudentIds.poll();
+                if (studentId == null) {
+                    return CREATE_STUDENT.request(loadTest);
+                }
+                return loadTest.authorized("linda", "/management/api/v1/students/" + studentId).DELETE().build();
+            }
+        };
+
+        private static final int TOTAL_WEIGHT = 100;
+
+        private final int weight;
+
+        Endpoint(int weight) {
+            this.weight = weight;
+        }
+
+        abstract HttpRequest request(LoadTest loadTest);
+
+        static Endpoint pick() {
+            int ticket = ThreadLocalRandom.current().nextInt(TOTAL_WEIGHT);
+            for (Endpoint endpoint : values()) {
+                ticket -= endpoint.weight;
+                if (ticket < 0) {
+                    return endpoint;
+                }
+            }
+            return GET_STUDENT;
+        }
+
+        private static HttpRequest.BodyPublisher body(int studentId, String studentName) {
+            return HttpRequest.BodyPublishers.ofString(
+                    "{\"studentId\":" + studentId + ",\"studentName\":\"" + studentName + "\"}");
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.demo.audit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "application.audit")
+public class AuditConfig {
+
+    private Boolean enabled;
+    private String directory;
+    private Integer bufferCapacity;
+    private Integer batchSize;
+    private Long idleMillis;
+    private Long maxFileBytes;
+    private Integer maxFiles;
+
+    public AuditConfig() {
+    }
+
+    public Boolean getEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(Boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getDirectory() {
+        return directory;
+    }
+
+    public void setDirectory(String directory) {
+        this.directory = directory;
+    }
+
+    public Integer getBufferCapacity() {
+        return bufferCapacity;
+    }
+
+    public void setBufferCapacity(Integer bufferCapacity) {
+        this.bufferCapacity = bufferCapacity;
+    }
+
+    public Integer getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(Integer batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public Long getIdleMillis() {
+        return idleMillis;
+    }
+
+    public void setIdleMillis(Long idleMillis) {
+        this.idleMillis = idleMillis;
+    }
+
+    public Long getMaxFileBytes() {
+        return maxFileBytes;
+    }
+
+    public void setMaxFileBytes(Long maxFileBytes) {
+        this.maxFileBytes = maxFileBytes;
+    }
+
+    public Integer getMaxFiles() {
+        return maxFiles;
+    }
+
+    public void setMaxFiles(Integer maxFiles) {
+        this.maxFiles = maxFiles;
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.demo.audit;
+
+// A slot of the ring buffer rather than a value: producers fill it in place, the writer reads it and
+// hands it back, so recording an event allocates nothing. Only valid while the writer is looking at it.
+public final class AuditEvent {
+
+    // Ring buffer position this slot is ready for, see AuditRingBuffer
+    volatile long sequence;
+
+    long timestampMillis;
+    AuditEventType type;
+    String principal;
+    String remoteAddress;
+    String detail;
+
+    AuditEvent(long sequence) {
+        this.sequence = sequence;
+    }
+
+    public long getTimestampMillis() {
+        return timestampMillis;
+    }
+
+    public AuditEventType getType() {
+        return type;
+    }
+
+    public String getPrincipal() {
+        return principal;
+    }
+
+    public String getRemoteAddress() {
+        return remoteAddress;
+    }
+
+    public String getDetail() {
+        return detail;
+    }
+}
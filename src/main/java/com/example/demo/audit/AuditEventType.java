@@ -0,0 +1,22 @@
+package com.example.demo.audit;
+
+import java.util.Locale;
+
+public enum AuditEventType {
+    LOGIN_SUCCEEDED,
+    LOGIN_FAILED,
+    LOGIN_THROTTLED,
+    TOKEN_REJECTED,
+    TOKEN_REVOKED,
+    TOKENS_REVOKED,
+    STUDENT_REGISTERED,
+    STUDENT_UPDATED,
+    STUDENT_DELETED,
+    STUDENTS_BULK_APPLIED;
+
+    private final String tag = name().toLowerCase(Locale.ROOT);
+
+    public String getTag() {
+        return tag;
+    }
+}
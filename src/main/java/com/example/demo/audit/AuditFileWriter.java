@@ -0,0 +1,83 @@
+package com.example.demo.audit;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Appends batches to audit.log and forces each one to disk, one fsync per batch however many events it
+// holds. Once the file would grow past maxFileBytes it is renamed to audit-<utc time>.log and a new one
+// is started; only the newest maxFiles rotated files are kept.
+class AuditFileWriter implements Closeable {
+
+    private static final String CURRENT_FILE = "audit.log";
+    private static final String ROTATED_GLOB = "audit-*.log";
+    private static final DateTimeFormatter ROTATED_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS")
+            .withZone(ZoneOffset.UTC);
+
+    private final Path directory;
+    private final Path currentFile;
+    private final long maxFileBytes;
+    private final int maxFiles;
+
+    private FileChannel channel;
+    private long fileBytes;
+
+    AuditFileWriter(Path directory, long maxFileBytes, int maxFiles) throws IOException {
+        this.directory = directory;
+        this.currentFile = directory.resolve(CURRENT_FILE);
+        this.maxFileBytes = maxFileBytes;
+        this.maxFiles = maxFiles;
+        Files.createDirectories(directory);
+        open();
+    }
+
+    void write(ByteBuffer batch) throws IOException {
+        if (fileBytes > 0 && fileBytes + batch.remaining() > maxFileBytes) {
+            rotate();
+        }
+        while (batch.hasRemaining()) {
+            fileBytes += channel.write(batch);
+        }
+        channel.force(false);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.force(false);
+        channel.close();
+    }
+
+    private void open() throws IOException {
+        channel = FileChannel.open(currentFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        fileBytes = channel.size();
+    }
+
+    private void rotate() throws IOException {
+        close();
+        Path rotated = directory.resolve("audit-" + ROTATED_TIME.format(Instant.now()) + ".log");
+        Files.move(currentFile, rotated, StandardCopyOption.ATOMIC_MOVE);
+        open();
+
+        // The timestamp sorts by name, oldest first
+        List<Path> rotatedFiles = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, ROTATED_GLOB)) {
+            files.forEach(rotatedFiles::add);
+        }
+        Collections.sort(rotatedFiles);
+        for (int i = 0; i < rotatedFiles.size() - maxFiles; i++) {
+            Files.delete(rotatedFiles.get(i));
+        }
+    }
+}
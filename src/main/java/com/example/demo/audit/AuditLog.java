@@ -0,0 +1,233 @@
+package com.example.demo.audit;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import javax.servlet.http.HttpServletRequest;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Paths;
+import java.security.Principal;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+// Security and management events, one JSON object per line in application.audit.directory.
+// Request threads only claim a ring buffer slot and fill it in; a single writer thread drains the buffer
+// in batches and forces each batch to disk once. When the writer falls behind and the buffer fills up,
+// events are dropped and counted rather than making a login wait for the disk.
+@Component
+public class AuditLog {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AuditLog.class);
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final boolean enabled;
+    private final AuditRingBuffer ringBuffer;
+    private final int batchSize;
+    private final long idleNanos;
+    private final LongAdder written = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final Timer flushTimer;
+
+    // Writer thread only
+    private final BatchBuffer batchBuffer = new BatchBuffer();
+    private JsonGenerator generator;
+    private int batchFailures;
+    private final Consumer<AuditEvent> encoder = this::encode;
+    private final AuditFileWriter fileWriter;
+    private final Thread writerThread;
+    private volatile boolean running = true;
+
+    @Autowired
+    public AuditLog(AuditConfig auditConfig, MeterRegistry meterRegistry) throws IOException {
+        this.enabled = Boolean.TRUE.equals(auditConfig.getEnabled());
+        this.ringBuffer = new AuditRingBuffer(auditConfig.getBufferCapacity());
+        this.batchSize = auditConfig.getBatchSize();
+        this.idleNanos = TimeUnit.MILLISECONDS.toNanos(auditConfig.getIdleMillis());
+
+        FunctionCounter.builder("audit.events", written, LongAdder::sum)
+                .description("Audit events by what became of them")
+                .tag("result", "written")
+                .register(meterRegistry);
+        FunctionCounter.builder("audit.events", dropped, LongAdder::sum)
+                .description("Audit events by what became of them")
+                .tag("result", "dropped")
+                .register(meterRegistry);
+        FunctionCounter.builder("audit.events", failed, LongAdder::sum)
+                .description("Audit events by what became of them")
+                .tag("result", "failed")
+                .register(meterRegistry);
+        Gauge.builder("audit.buffer.size", ringBuffer, AuditRingBuffer::size)
+                .description("Audit events waiting for the writer")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("audit.flush")
+                .description("Time spent writing and forcing one batch of audit events")
+                .register(meterRegistry);
+
+        if (!enabled) {
+            this.generator = null;
+            this.fileWriter = null;
+            this.writerThread = null;
+            return;
+        }
+        this.generator = createGenerator();
+        this.fileWriter = new AuditFileWriter(
+                Paths.get(auditConfig.getDirectory()),
+                auditConfig.getMaxFileBytes(),
+                auditConfig.getMaxFiles()
+        );
+        this.writerThread = new Thread(this::writeLoop, "audit-writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    // Never blocks: false when the event was dropped because the writer is behind
+    public boolean record(AuditEventType type, String principal, String remoteAddress, String detail) {
+        if (!enabled) {
+            return false;
+        }
+        if (ringBuffer.offer(System.currentTimeMillis(), type, principal, remoteAddress, detail)) {
+            return true;
+        }
+        dropped.increment();
+        return false;
+    }
+
+    // For events raised inside a request that has already been authenticated
+    public boolean record(AuditEventType type, HttpServletRequest request, String detail) {
+        Principal principal = request.getUserPrincipal();
+        return record(type, principal == null ? null : principal.getName(), request.getRemoteAddr(), detail);
+    }
+
+    // The writer drains what is left and closes the file itself, so the file is never closed under it
+    @PreDestroy
+    public void close() throws InterruptedException {
+        if (!enabled) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(writerThread);
+        writerThread.join(TimeUnit.SECONDS.toMillis(10));
+        if (writerThread.isAlive()) {
+            LOGGER.warn("Audit writer still busy on shutdown with {} events left", ringBuffer.size());
+        }
+    }
+
+    private void writeLoop() {
+        try {
+            while (running || ringBuffer.size() > 0) {
+                int events = ringBuffer.drain(encoder, batchSize);
+                if (events == 0) {
+                    LockSupport.parkNanos(idleNanos);
+                    continue;
+                }
+                writeBatch(events - batchFailures);
+            }
+        } finally {
+            try {
+                fileWriter.close();
+            } catch (IOException e) {
+                LOGGER.error("Could not close the audit log", e);
+            }
+        }
+    }
+
+    private void writeBatch(int events) {
+        long start = System.nanoTime();
+        try {
+            generator.flush();
+            fileWriter.write(batchBuffer.toByteBuffer());
+            written.add(events);
+        } catch (IOException | RuntimeException e) {
+            failed.add(events);
+            LOGGER.error("Lost {} audit events", events, e);
+        } finally {
+            batchBuffer.reset();
+            batchFailures = 0;
+        }
+        flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    // One event that cannot be encoded is counted and cut out of the batch, the rest of the batch still goes out
+    private void encode(AuditEvent event) {
+        int start = batchBuffer.size() + generator.getOutputBuffered();
+        try {
+            writeEvent(event);
+        } catch (IOException | RuntimeException e) {
+            batchFailures++;
+            failed.increment();
+            LOGGER.error("Lost an audit event", e);
+            discardFrom(start);
+        }
+    }
+
+    // The generator is left inside the broken object, so start over with a new one after the good bytes
+    private void discardFrom(int start) {
+        try {
+            generator.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        batchBuffer.truncate(start);
+        generator = createGenerator();
+    }
+
+    private JsonGenerator createGenerator() {
+        try {
+            JsonGenerator jsonGenerator = JSON_FACTORY.createGenerator(batchBuffer, JsonEncoding.UTF8);
+            jsonGenerator.setRootValueSeparator(null);
+            return jsonGenerator;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeEvent(AuditEvent event) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("time", Instant.ofEpochMilli(event.getTimestampMillis()).toString());
+        generator.writeStringField("event", event.getType().getTag());
+        writeOptionalField("principal", event.getPrincipal());
+        writeOptionalField("remoteAddress", event.getRemoteAddress());
+        writeOptionalField("detail", event.getDetail());
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    private void writeOptionalField(String name, String value) throws IOException {
+        if (value != null) {
+            generator.writeStringField(name, value);
+        }
+    }
+
+    // Lets a batch go to the channel straight out of the stream's own array
+    private static class BatchBuffer extends ByteArrayOutputStream {
+
+        private BatchBuffer() {
+            super(64 * 1024);
+        }
+
+        private ByteBuffer toByteBuffer() {
+            return ByteBuffer.wrap(buf, 0, count);
+        }
+
+        private void truncate(int size) {
+            count = size;
+        }
+    }
+}
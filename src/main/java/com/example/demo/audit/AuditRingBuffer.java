@@ -0,0 +1,81 @@
+package com.example.demo.audit;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+// Bounded multi producer, single consumer queue of preallocated slots. Each slot carries the sequence
+// it is ready for: a producer claims position p with one CAS once slot p is free (sequence == p),
+// fills it and publishes it by setting sequence to p + 1. The consumer takes slots in order while they
+// are published and frees each one for the next lap with sequence = p + capacity.
+// A full buffer is reported to the producer instead of making it wait.
+class AuditRingBuffer {
+
+    private final AuditEvent[] slots;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+
+    // Only written by the consumer, volatile so size() can be read from elsewhere
+    private volatile long head;
+
+    AuditRingBuffer(int capacity) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalStateException("Audit buffer capacity must be a power of two, was " + capacity);
+        }
+        this.slots = new AuditEvent[capacity];
+        this.mask = capacity - 1;
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new AuditEvent(i);
+        }
+    }
+
+    boolean offer(long timestampMillis, AuditEventType type, String principal, String remoteAddress, String detail) {
+        AuditEvent slot;
+        long position;
+        while (true) {
+            position = tail.get();
+            slot = slots[(int) position & mask];
+            long lag = slot.sequence - position;
+            if (lag < 0) {
+                // The consumer has not freed this slot since the last lap
+                return false;
+            }
+            if (lag == 0 && tail.compareAndSet(position, position + 1)) {
+                break;
+            }
+        }
+        slot.timestampMillis = timestampMillis;
+        slot.type = type;
+        slot.principal = principal;
+        slot.remoteAddress = remoteAddress;
+        slot.detail = detail;
+        slot.sequence = position + 1;
+        return true;
+    }
+
+    // Hands up to maxEvents published events to the consumer in order, returns how many
+    int drain(Consumer<AuditEvent> consumer, int maxEvents) {
+        int drained = 0;
+        while (drained < maxEvents) {
+            AuditEvent slot = slots[(int) head & mask];
+            if (slot.sequence != head + 1) {
+                break;
+            }
+            consumer.accept(slot);
+            slot.principal = null;
+            slot.remoteAddress = null;
+            slot.detail = null;
+            slot.sequence = head + slots.length;
+            head++;
+            drained++;
+        }
+        return drained;
+    }
+
+    int size() {
+        return (int) Math.max(0, tail.get() - head);
+    }
+
+    int capacity() {
+        return slots.length;
+    }
+}
@@ -66,4 +66,28 @@ public class ApplicationUser implements UserDetails {
     public boolean isEnabled() {
         return isEnabled;
     }
+
+    public ApplicationUser withPassword(String password) {
+        return new ApplicationUser(
+                username,
+                password,
+                grantedAuthorities,
+                isAccountNonExpired,
+                isAccountNonLocked,
+                isCredentialsNonExpired,
+                isEnabled
+        );
+    }
+
+    public ApplicationUser withAccountNonLocked(boolean isAccountNonLocked) {
+        return new ApplicationUser(
+                username,
+                password,
+                grantedAuthorities,
+                isAccountNonExpired,
+                isAccountNonLocked,
+                isCredentialsNonExpired,
+                isEnabled
+        );
+    }
 }
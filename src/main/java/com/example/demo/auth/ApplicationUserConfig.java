@@ -0,0 +1,38 @@
+package com.example.demo.auth;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "application.users")
+public class ApplicationUserConfig {
+
+    private String credentialsFile;
+    private Integer expectedUsers;
+    private Double usernameFalsePositiveRate;
+
+    public ApplicationUserConfig() {
+    }
+
+    public String getCredentialsFile() {
+        return credentialsFile;
+    }
+
+    public void setCredentialsFile(String credentialsFile) {
+        this.credentialsFile = credentialsFile;
+    }
+
+    public Integer getExpectedUsers() {
+        return expectedUsers;
+    }
+
+    public void setExpectedUsers(Integer expectedUsers) {
+        this.expectedUsers = expectedUsers;
+    }
+
+    public Double getUsernameFalsePositiveRate() {
+        return usernameFalsePositiveRate;
+    }
+
+    public void setUsernameFalsePositiveRate(Double usernameFalsePositiveRate) {
+        this.usernameFalsePositiveRate = usernameFalsePositiveRate;
+    }
+}
@@ -6,4 +6,9 @@ public interface ApplicationUserDao {
 
     Optional<ApplicationUser> selectApplicationUserByUsername(String username);
 
+    // False only for usernames that are certainly not stored, so a miss can skip the lookup
+    default boolean mightContainUsername(String username) {
+        return true;
+    }
+
 }
@@ -1,28 +1,68 @@
 package com.example.demo.auth;
 
+import com.example.demo.security.LoginThrottle;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
 @Service
-public class ApplicationUserService implements UserDetailsService {
+public class ApplicationUserService implements UserDetailsService, UserDetailsPasswordService {
 
     private final ApplicationUserDao applicationUserDao;
+    private final LoginThrottle loginThrottle;
 
     @Autowired
-    public ApplicationUserService(@Qualifier("fake") ApplicationUserDao applicationUserDao) {
+    public ApplicationUserService(@Qualifier("inMemory") ApplicationUserDao applicationUserDao,
+                                  LoginThrottle loginThrottle) {
         this.applicationUserDao = applicationUserDao;
+        this.loginThrottle = loginThrottle;
     }
 
+    // Used for password logins: a username that ran out of failed attempts reports itself locked,
+    // so DaoAuthenticationProvider turns it away before hashing the presented password
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        ApplicationUser applicationUser = loadStoredUserByUsername(username);
+        if (applicationUser.isAccountNonLocked() && loginThrottle.isUsernameLocked(username)) {
+            return applicationUser.withAccountNonLocked(false);
+        }
+        return applicationUser;
+    }
+
+    // The user as stored, without the temporary login lockout. Refreshing proves possession of a token
+    // rather than guessing a password, and failed guesses must not log the real owner out.
+    // Misses are mostly credential stuffing, so they skip the lookup when the DAO can rule the username out
+    // and throw without a stack trace or a formatted message. They do not return any faster:
+    // DaoAuthenticationProvider answers a UsernameNotFoundException by verifying the presented password
+    // against a dummy hash, so an unknown username costs the same BCrypt verify as a wrong password.
+    public ApplicationUser loadStoredUserByUsername(String username) throws UsernameNotFoundException {
+        if (!applicationUserDao.mightContainUsername(username)) {
+            throw new UnknownUsernameException();
+        }
         return applicationUserDao
                 .selectApplicationUserByUsername(username)
-                .orElseThrow(() ->
-                        new UsernameNotFoundException(String.format("Username %s not found", username))
-                );
+                .orElseThrow(UnknownUsernameException::new);
+    }
+
+    // Called after a successful login when the stored hash was made with a different work factor.
+    // A read only store keeps the old hash and gets asked again on the next login.
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        if (!(applicationUserDao instanceof WritableApplicationUserDao)) {
+            return user;
+        }
+        WritableApplicationUserDao writableApplicationUserDao = (WritableApplicationUserDao) applicationUserDao;
+        return writableApplicationUserDao
+                .selectApplicationUserByUsername(user.getUsername())
+                .map(applicationUser -> {
+                    ApplicationUser rehashed = applicationUser.withPassword(newPassword);
+                    writableApplicationUserDao.updateApplicationUser(rehashed);
+                    return (UserDetails) rehashed;
+                })
+                .orElse(user);
     }
 }
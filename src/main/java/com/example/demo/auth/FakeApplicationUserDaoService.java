@@ -1,5 +1,6 @@
 package com.example.demo.auth;
 
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -7,12 +8,16 @@ import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static com.example.demo.security.ApplicationUserRole.*;
 
 @Repository("fake")
 public class FakeApplicationUserDaoService implements ApplicationUserDao {
 
+    // Every lookup builds and hashes the whole user list, a miss is answered without that
+    private static final Set<String> USERNAMES = ImmutableSet.of("annasmith", "linda", "tom");
+
     private final PasswordEncoder passwordEncoder;
 
     @Autowired
@@ -28,6 +33,11 @@ public class FakeApplicationUserDaoService implements ApplicationUserDao {
                 .findFirst();
     }
 
+    @Override
+    public boolean mightContainUsername(String username) {
+        return USERNAMES.contains(username);
+    }
+
     private List<ApplicationUser> getApplicationUsers() {
         List<ApplicationUser> applicationUsers = Lists.newArrayList(
                 new ApplicationUser(
@@ -0,0 +1,212 @@
+package com.example.demo.auth;
+
+import com.example.demo.security.ApplicationUserRole;
+import com.example.demo.security.GrantedAuthorities;
+import com.example.demo.security.StringBloomFilter;
+import com.example.demo.storage.RecordLog;
+import com.example.demo.storage.StorageEngine;
+import com.google.common.base.Splitter;
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableSet;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Repository;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static com.example.demo.security.ApplicationUserRole.*;
+
+@Repository("inMemory")
+public class InMemoryApplicationUserDaoService implements WritableApplicationUserDao {
+
+    private static final Splitter CREDENTIALS_SPLITTER = Splitter.on(':').trimResults();
+
+    private final ConcurrentMap<String, ApplicationUser> applicationUsers = new ConcurrentHashMap<>();
+
+    // Every stored username, and deleted ones until the next rebuild. Rebuilt twice as large whenever
+    // the users outgrow it, so the false positive rate stays near the configured one.
+    private final ApplicationUserConfig applicationUserConfig;
+    private volatile StringBloomFilter usernameFilter;
+
+    // Null when storage is disabled
+    private final RecordLog recordLog;
+
+    @Autowired
+    public InMemoryApplicationUserDaoService(PasswordEncoder passwordEncoder,
+                                             ApplicationUserConfig applicationUserConfig,
+                                             StorageEngine storageEngine) throws IOException {
+        this.applicationUserConfig = applicationUserConfig;
+        this.usernameFilter = new StringBloomFilter(
+                applicationUserConfig.getExpectedUsers(),
+                applicationUserConfig.getUsernameFalsePositiveRate()
+        );
+        this.recordLog = storageEngine.open("users").orElse(null);
+
+        if (recordLog != null && recordLog.size() > 0) {
+            recordLog.forEach((username, value) -> applicationUsers.put(username, decode(username, value)));
+            rebuildUsernameFilter();
+        } else if (Strings.isNullOrEmpty(applicationUserConfig.getCredentialsFile())) {
+            insertApplicationUser(newApplicationUser("annasmith", passwordEncoder.encode("password"), STUDENT));
+            insertApplicationUser(newApplicationUser("linda", passwordEncoder.encode("password"), ADMIN));
+            insertApplicationUser(newApplicationUser("tom", passwordEncoder.encode("password"), ADMINTRAINEE));
+        } else {
+            loadCredentials(applicationUserConfig.getCredentialsFile());
+        }
+    }
+
+    @Override
+    public Optional<ApplicationUser> selectApplicationUserByUsername(String username) {
+        return Optional.ofNullable(applicationUsers.get(username));
+    }
+
+    @Override
+    public boolean mightContainUsername(String username) {
+        return usernameFilter.mightContain(username);
+    }
+
+    // Writes go through compute so the log sees changes to one username in the same order as the map
+    @Override
+    public void insertApplicationUser(ApplicationUser applicationUser) {
+        applicationUsers.compute(applicationUser.getUsername(), (username, existing) -> {
+            if (existing != null) {
+                throw new IllegalStateException("Username " + username + " already exists");
+            }
+            persist(applicationUser);
+            return applicationUser;
+        });
+        // After the map and under the rebuild's lock, so the username is either read by a rebuild or put into its filter
+        synchronized (this) {
+            usernameFilter.put(applicationUser.getUsername());
+            if (applicationUsers.size() > usernameFilter.getExpectedInsertions()) {
+                rebuildUsernameFilter();
+            }
+        }
+    }
+
+    @Override
+    public void updateApplicationUser(ApplicationUser applicationUser) {
+        ApplicationUser updated = applicationUsers.computeIfPresent(applicationUser.getUsername(), (username, existing) -> {
+            persist(applicationUser);
+            return applicationUser;
+        });
+        if (updated == null) {
+            throw new IllegalStateException("Username " + applicationUser.getUsername() + " does not exists");
+        }
+    }
+
+    @Override
+    public void deleteApplicationUserByUsername(String username) {
+        applicationUsers.computeIfPresent(username, (key, existing) -> {
+            if (recordLog != null) {
+                recordLog.delete(key);
+            }
+            return null;
+        });
+    }
+
+    private synchronized void rebuildUsernameFilter() {
+        int expectedUsers = Math.max(applicationUserConfig.getExpectedUsers(), applicationUsers.size() * 2);
+        StringBloomFilter filter = new StringBloomFilter(expectedUsers, applicationUserConfig.getUsernameFalsePositiveRate());
+        for (String username : applicationUsers.keySet()) {
+            filter.put(username);
+        }
+        usernameFilter = filter;
+    }
+
+    // Each line holds an already hashed credential: username:encodedPassword:ROLE
+    private void loadCredentials(String credentialsFile) throws IOException {
+        for (String line : Files.readAllLines(Paths.get(credentialsFile), StandardCharsets.UTF_8)) {
+            if (line.isBlank() || line.startsWith("#")) {
+                continue;
+            }
+            List<String> fields = CREDENTIALS_SPLITTER.splitToList(line);
+            if (fields.size() != 3) {
+                throw new IllegalStateException("Malformed credentials line in " + credentialsFile + ": " + fields.get(0));
+            }
+            insertApplicationUser(newApplicationUser(fields.get(0), fields.get(1), ApplicationUserRole.valueOf(fields.get(2))));
+        }
+    }
+
+    private void persist(ApplicationUser applicationUser) {
+        if (recordLog == null) {
+            return;
+        }
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeUTF(applicationUser.getPassword());
+            out.writeBoolean(applicationUser.isAccountNonExpired());
+            out.writeBoolean(applicationUser.isAccountNonLocked());
+            out.writeBoolean(applicationUser.isCredentialsNonExpired());
+            out.writeBoolean(applicationUser.isEnabled());
+            out.writeInt(applicationUser.getAuthorities().size());
+            for (GrantedAuthority grantedAuthority : applicationUser.getAuthorities()) {
+                out.writeUTF(grantedAuthority.getAuthority());
+            }
+            recordLog.put(applicationUser.getUsername(), bytes.toByteArray());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static ApplicationUser decode(String username, byte[] value) {
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(value));
+            String password = in.readUTF();
+            boolean isAccountNonExpired = in.readBoolean();
+            boolean isAccountNonLocked = in.readBoolean();
+            boolean isCredentialsNonExpired = in.readBoolean();
+            boolean isEnabled = in.readBoolean();
+
+            int authorityCount = in.readInt();
+            ImmutableSet.Builder<GrantedAuthority> grantedAuthorities = ImmutableSet.builderWithExpectedSize(authorityCount);
+            for (int i = 0; i < authorityCount; i++) {
+                grantedAuthorities.add(GrantedAuthorities.of(in.readUTF()));
+            }
+            Set<? extends GrantedAuthority> authorities = grantedAuthorities.build();
+            // Users that hold exactly one role get that role's shared authority set back
+            Integer authorityMask = GrantedAuthorities.toMask(authorities);
+            if (authorityMask != null) {
+                authorities = GrantedAuthorities.fromMask(authorityMask);
+            }
+
+            return new ApplicationUser(
+                    username,
+                    password,
+                    authorities,
+                    isAccountNonExpired,
+                    isAccountNonLocked,
+                    isCredentialsNonExpired,
+                    isEnabled
+            );
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static ApplicationUser newApplicationUser(String username, String encodedPassword, ApplicationUserRole role) {
+        return new ApplicationUser(
+                username,
+                encodedPassword,
+                role.getGrantedAuthorities(),
+                true,
+                true,
+                true,
+                true
+        );
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.demo.auth;
+
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+class UnknownUsernameException extends UsernameNotFoundException {
+
+    UnknownUsernameException() {
+        super("Username not found");
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.demo.auth;
+
+// A user store that can also be changed at runtime, the fake store only ever reads
+public interface WritableApplicationUserDao extends ApplicationUserDao {
+
+    void insertApplicationUser(ApplicationUser applicationUser);
+
+    void updateApplicationUser(ApplicationUser applicationUser);
+
+    void deleteApplicationUserByUsername(String username);
+
+}
@@ -1,20 +1,58 @@
 package com.example.demo.contoller;
 
+import com.example.demo.web.CachedContent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.Context;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 @Controller
 @RequestMapping("/")
+@Profile("!reactive")
 public class TemplateController {
 
+    // These templates use no model, request or session state, so each one is rendered on first use and
+    // its bytes are served from then on. The pages still sit behind authentication like before; private
+    // with an ETag lets the browser keep them and revalidate for a 304.
+    private static final String PAGE_CACHE_CONTROL = "private, no-cache";
+    private static final String PAGE_CONTENT_TYPE = new MediaType(MediaType.TEXT_HTML, StandardCharsets.UTF_8).toString();
+
+    private final ITemplateEngine templateEngine;
+    private final ConcurrentMap<String, CachedContent> renderedPages = new ConcurrentHashMap<>();
+
+    @Autowired
+    public TemplateController(ITemplateEngine templateEngine) {
+        this.templateEngine = templateEngine;
+    }
+
     @GetMapping("login")
-    public String getLogin() {
-        return "login";
+    public void getLogin(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        renderedPage("login").write(request, response);
     }
 
     @GetMapping("courses")
-    public String getCourses() {
-        return "courses";
+    public void getCourses(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        renderedPage("courses").write(request, response);
+    }
+
+    private CachedContent renderedPage(String template) {
+        return renderedPages.computeIfAbsent(template, name -> new CachedContent(
+                templateEngine.process(name, new Context(Locale.ROOT)).getBytes(StandardCharsets.UTF_8),
+                null,
+                PAGE_CONTENT_TYPE,
+                PAGE_CACHE_CONTROL
+        ));
     }
 }
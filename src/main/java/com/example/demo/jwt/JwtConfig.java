@@ -11,8 +11,21 @@ import javax.crypto.SecretKey;
 public class JwtConfig {
 
     private String secretKey;
+    private String secretKeyId;
+    private String keyStore;
+    private String keyStoreType;
+    private String keyStorePassword;
+    private String signingKeyId;
     private String tokenPrefix;
-    private Integer tokenExpirationAfterDays;
+    private Long accessTokenExpirationSeconds;
+    private Long refreshTokenExpirationSeconds;
+    private Long refreshTokenFamilyLifetimeSeconds;
+    private Long tokenCacheMaximumSize;
+    private Integer tokenCacheTtlSeconds;
+    private Boolean compactAuthorities;
+    private Integer loginRequestMaxBytes;
+    private Integer revocationExpectedTokens;
+    private Double revocationFalsePositiveRate;
 
     public JwtConfig() {
     }
@@ -25,6 +38,46 @@ public class JwtConfig {
         this.secretKey = secretKey;
     }
 
+    public String getSecretKeyId() {
+        return secretKeyId;
+    }
+
+    public void setSecretKeyId(String secretKeyId) {
+        this.secretKeyId = secretKeyId;
+    }
+
+    public String getKeyStore() {
+        return keyStore;
+    }
+
+    public void setKeyStore(String keyStore) {
+        this.keyStore = keyStore;
+    }
+
+    public String getKeyStoreType() {
+        return keyStoreType;
+    }
+
+    public void setKeyStoreType(String keyStoreType) {
+        this.keyStoreType = keyStoreType;
+    }
+
+    public String getKeyStorePassword() {
+        return keyStorePassword;
+    }
+
+    public void setKeyStorePassword(String keyStorePassword) {
+        this.keyStorePassword = keyStorePassword;
+    }
+
+    public String getSigningKeyId() {
+        return signingKeyId;
+    }
+
+    public void setSigningKeyId(String signingKeyId) {
+        this.signingKeyId = signingKeyId;
+    }
+
     public String getTokenPrefix() {
         return tokenPrefix;
     }
@@ -33,15 +86,83 @@ public class JwtConfig {
         this.tokenPrefix = tokenPrefix;
     }
 
-    public Integer getTokenExpirationAfterDays() {
-        return tokenExpirationAfterDays;
+    public Long getAccessTokenExpirationSeconds() {
+        return accessTokenExpirationSeconds;
+    }
+
+    public void setAccessTokenExpirationSeconds(Long accessTokenExpirationSeconds) {
+        this.accessTokenExpirationSeconds = accessTokenExpirationSeconds;
+    }
+
+    public Long getRefreshTokenExpirationSeconds() {
+        return refreshTokenExpirationSeconds;
+    }
+
+    public void setRefreshTokenExpirationSeconds(Long refreshTokenExpirationSeconds) {
+        this.refreshTokenExpirationSeconds = refreshTokenExpirationSeconds;
+    }
+
+    public Long getRefreshTokenFamilyLifetimeSeconds() {
+        return refreshTokenFamilyLifetimeSeconds;
+    }
+
+    public void setRefreshTokenFamilyLifetimeSeconds(Long refreshTokenFamilyLifetimeSeconds) {
+        this.refreshTokenFamilyLifetimeSeconds = refreshTokenFamilyLifetimeSeconds;
+    }
+
+    public Long getTokenCacheMaximumSize() {
+        return tokenCacheMaximumSize;
+    }
+
+    public void setTokenCacheMaximumSize(Long tokenCacheMaximumSize) {
+        this.tokenCacheMaximumSize = tokenCacheMaximumSize;
     }
 
-    public void setTokenExpirationAfterDays(Integer tokenExpirationAfterDays) {
-        this.tokenExpirationAfterDays = tokenExpirationAfterDays;
+    public Integer getTokenCacheTtlSeconds() {
+        return tokenCacheTtlSeconds;
+    }
+
+    public void setTokenCacheTtlSeconds(Integer tokenCacheTtlSeconds) {
+        this.tokenCacheTtlSeconds = tokenCacheTtlSeconds;
+    }
+
+    public Boolean getCompactAuthorities() {
+        return compactAuthorities;
+    }
+
+    public void setCompactAuthorities(Boolean compactAuthorities) {
+        this.compactAuthorities = compactAuthorities;
+    }
+
+    public Integer getLoginRequestMaxBytes() {
+        return loginRequestMaxBytes;
+    }
+
+    public void setLoginRequestMaxBytes(Integer loginRequestMaxBytes) {
+        this.loginRequestMaxBytes = loginRequestMaxBytes;
+    }
+
+    public Integer getRevocationExpectedTokens() {
+        return revocationExpectedTokens;
+    }
+
+    public void setRevocationExpectedTokens(Integer revocationExpectedTokens) {
+        this.revocationExpectedTokens = revocationExpectedTokens;
+    }
+
+    public Double getRevocationFalsePositiveRate() {
+        return revocationFalsePositiveRate;
+    }
+
+    public void setRevocationFalsePositiveRate(Double revocationFalsePositiveRate) {
+        this.revocationFalsePositiveRate = revocationFalsePositiveRate;
     }
 
     public String getAuthorizationHeader() {
         return HttpHeaders.AUTHORIZATION;
     }
+
+    public String getRefreshTokenHeader() {
+        return "Refresh-Token";
+    }
 }
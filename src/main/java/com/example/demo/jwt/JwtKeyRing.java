@@ -0,0 +1,206 @@
+package com.example.demo.jwt;
+
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableMap;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyStore;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Map;
+import java.util.Objects;
+
+// Every key a token may be signed with, indexed by the kid header. Keys come from application.jwt.secretKey
+// (kid application.jwt.secretKeyId, also used for tokens without a kid) and, optionally, a keystore that is
+// reloaded whenever its modification time changes:
+//   secret key entry       HMAC, signs and verifies
+//   private key entry      RSA or EC, signs with the private key and verifies with the certificate's public key
+//   trusted certificate    verifies only, which is all a verification-only node needs
+// The signing key is application.jwt.signingKeyId if set, otherwise the newest signing entry in the keystore,
+// otherwise the property secret. Rotating is therefore: add the new key to the keystore, wait out the
+// access token lifetime, remove the old one.
+@Component
+public class JwtKeyRing extends SigningKeyResolverAdapter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(JwtKeyRing.class);
+
+    private final JwtConfig jwtConfig;
+    private final JwtTokenCache jwtTokenCache;
+
+    // Replaced as a whole on reload, readers never see a half built ring
+    private volatile Snapshot snapshot = new Snapshot(ImmutableMap.of(), null);
+    private FileTime keyStoreModified;
+
+    @Autowired
+    public JwtKeyRing(JwtConfig jwtConfig, JwtTokenCache jwtTokenCache) {
+        this.jwtConfig = jwtConfig;
+        this.jwtTokenCache = jwtTokenCache;
+        reload();
+    }
+
+    @Override
+    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+        String keyId = header.getKeyId() == null ? jwtConfig.getSecretKeyId() : header.getKeyId();
+        Key key = snapshot.verificationKeys.get(keyId);
+        if (key == null) {
+            throw new SignatureException("No key with id " + keyId);
+        }
+        return key;
+    }
+
+    // Key and id are read from the same snapshot, a concurrent reload cannot pair one key with another's id
+    public SigningKey getSigningKey() {
+        SigningKey signingKey = snapshot.signingKey;
+        if (signingKey == null) {
+            throw new IllegalStateException("No signing key configured, this node can only verify tokens");
+        }
+        return signingKey;
+    }
+
+    public Map<String, Key> getVerificationKeys() {
+        return snapshot.verificationKeys;
+    }
+
+    // Replaces the whole ring. Cached verifications are dropped when a key went away or changed,
+    // otherwise a token signed by a retired key would keep working until its cache entry expired.
+    public synchronized void install(Map<String, Key> verificationKeys, String signingKeyId, Key signingKey) {
+        Snapshot previous = snapshot;
+        snapshot = new Snapshot(
+                ImmutableMap.copyOf(verificationKeys),
+                signingKey == null ? null : new SigningKey(signingKeyId, signingKey)
+        );
+        for (Map.Entry<String, Key> entry : previous.verificationKeys.entrySet()) {
+            if (!entry.getValue().equals(verificationKeys.get(entry.getKey()))) {
+                jwtTokenCache.invalidateAll();
+                break;
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${application.jwt.keyStoreReloadIntervalMillis}")
+    public synchronized void reloadIfModified() {
+        if (Strings.isNullOrEmpty(jwtConfig.getKeyStore())) {
+            return;
+        }
+        try {
+            FileTime modified = Files.getLastModifiedTime(Paths.get(jwtConfig.getKeyStore()));
+            if (modified.equals(keyStoreModified)) {
+                return;
+            }
+            // Remembered before loading, so a broken file is reported once rather than on every poll
+            keyStoreModified = modified;
+            reload();
+        } catch (IOException | RuntimeException e) {
+            // A half written or broken keystore must not take down the keys that work
+            LOGGER.error("Keeping the current key ring, keystore {} could not be reloaded", jwtConfig.getKeyStore(), e);
+        }
+    }
+
+    private synchronized void reload() {
+        ImmutableMap.Builder<String, Key> verificationKeys = ImmutableMap.builder();
+        String signingKeyId = null;
+        Key signingKey = null;
+
+        if (!Strings.isNullOrEmpty(jwtConfig.getSecretKey())) {
+            Key secretKey = Keys.hmacShaKeyFor(jwtConfig.getSecretKey().getBytes());
+            verificationKeys.put(jwtConfig.getSecretKeyId(), secretKey);
+            signingKeyId = jwtConfig.getSecretKeyId();
+            signingKey = secretKey;
+        }
+
+        FileTime modified = null;
+        if (!Strings.isNullOrEmpty(jwtConfig.getKeyStore())) {
+            Path keyStoreFile = Paths.get(jwtConfig.getKeyStore());
+            try {
+                modified = Files.getLastModifiedTime(keyStoreFile);
+                KeyStore keyStore = KeyStore.getInstance(jwtConfig.getKeyStoreType());
+                char[] password = Strings.nullToEmpty(jwtConfig.getKeyStorePassword()).toCharArray();
+                try (InputStream in = Files.newInputStream(keyStoreFile)) {
+                    keyStore.load(in, password);
+                }
+
+                Date newestSigningKey = null;
+                for (String alias : Collections.list(keyStore.aliases())) {
+                    if (keyStore.isCertificateEntry(alias)) {
+                        verificationKeys.put(alias, keyStore.getCertificate(alias).getPublicKey());
+                        continue;
+                    }
+                    Key key = keyStore.getKey(alias, password);
+                    if (keyStore.entryInstanceOf(alias, KeyStore.PrivateKeyEntry.class)) {
+                        verificationKeys.put(alias, keyStore.getCertificate(alias).getPublicKey());
+                    } else {
+                        verificationKeys.put(alias, key);
+                    }
+
+                    Date created = keyStore.getCreationDate(alias);
+                    boolean configured = alias.equals(jwtConfig.getSigningKeyId());
+                    boolean newest = Strings.isNullOrEmpty(jwtConfig.getSigningKeyId())
+                            && (newestSigningKey == null || (created != null && created.after(newestSigningKey)));
+                    if (configured || newest) {
+                        signingKeyId = alias;
+                        signingKey = key;
+                        newestSigningKey = created;
+                    }
+                }
+            } catch (IOException | GeneralSecurityException e) {
+                throw new IllegalStateException("Cannot load keystore " + keyStoreFile, e);
+            }
+        }
+
+        if (!Strings.isNullOrEmpty(jwtConfig.getSigningKeyId()) && !Objects.equals(signingKeyId, jwtConfig.getSigningKeyId())) {
+            throw new IllegalStateException("Signing key " + jwtConfig.getSigningKeyId() + " is not in the keystore");
+        }
+
+        Map<String, Key> loaded = verificationKeys.build();
+        install(loaded, signingKeyId, signingKey);
+        keyStoreModified = modified;
+        LOGGER.info("Loaded {} token verification keys {}, signing with {}", loaded.size(), loaded.keySet(), signingKeyId);
+    }
+
+    public static class SigningKey {
+
+        private final String keyId;
+        private final Key key;
+
+        private SigningKey(String keyId, Key key) {
+            this.keyId = keyId;
+            this.key = key;
+        }
+
+        public String getKeyId() {
+            return keyId;
+        }
+
+        public Key getKey() {
+            return key;
+        }
+    }
+
+    private static class Snapshot {
+
+        private final Map<String, Key> verificationKeys;
+        private final SigningKey signingKey;
+
+        private Snapshot(Map<String, Key> verificationKeys, SigningKey signingKey) {
+            this.verificationKeys = verificationKeys;
+            this.signingKey = signingKey;
+        }
+    }
+}
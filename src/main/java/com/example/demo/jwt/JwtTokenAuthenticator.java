@@ -0,0 +1,141 @@
+package com.example.demo.jwt;
+
+import com.example.demo.audit.AuditEventType;
+import com.example.demo.audit.AuditLog;
+import com.example.demo.security.GrantedAuthorities;
+import com.example.demo.security.SecurityMetrics;
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.hash.HashCode;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.SignatureException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static com.example.demo.security.SecurityMetrics.Outcome.*;
+import static com.example.demo.security.SecurityMetrics.Stage.JWT_VERIFY;
+
+// Turns an Authorization header into an Authentication. Shared by the servlet JwtTokenVerifier and the
+// reactive JwtTokenWebFilter, nothing in here blocks: parsing is CPU only and the cache and revocation
+// checks are in memory.
+@Component
+public class JwtTokenAuthenticator {
+
+    private final JwtKeyRing jwtKeyRing;
+    private final JwtConfig jwtConfig;
+    private final JwtTokenCache jwtTokenCache;
+    private final SecurityMetrics securityMetrics;
+    private final TokenRevocationService tokenRevocationService;
+    private final AuditLog auditLog;
+
+    @Autowired
+    public JwtTokenAuthenticator(JwtKeyRing jwtKeyRing,
+                                 JwtConfig jwtConfig,
+                                 JwtTokenCache jwtTokenCache,
+                                 SecurityMetrics securityMetrics,
+                                 TokenRevocationService tokenRevocationService,
+                                 AuditLog auditLog) {
+        this.jwtKeyRing = jwtKeyRing;
+        this.jwtConfig = jwtConfig;
+        this.jwtTokenCache = jwtTokenCache;
+        this.securityMetrics = securityMetrics;
+        this.tokenRevocationService = tokenRevocationService;
+        this.auditLog = auditLog;
+    }
+
+    // Null when the header carries no bearer token, the request then stays anonymous
+    public Authentication authenticate(String authorizationHeader, String remoteAddress) {
+        if (Strings.isNullOrEmpty(authorizationHeader) || !authorizationHeader.startsWith(jwtConfig.getTokenPrefix())) {
+            return null;
+        }
+
+        long start = SecurityMetrics.start();
+        int tokenOffset = jwtConfig.getTokenPrefix().length();
+        HashCode digest = jwtTokenCache.digest(authorizationHeader, tokenOffset);
+        Authentication authentication = jwtTokenCache.get(digest);
+        SecurityMetrics.Outcome outcome = CACHED;
+
+        if (authentication == null) {
+            String token = authorizationHeader.substring(tokenOffset);
+            try {
+
+                Jws<Claims> claimsJws = Jwts.parser()
+                        .setSigningKeyResolver(jwtKeyRing)
+                        .parseClaimsJws(token);
+
+                Claims body = claimsJws.getBody();
+
+                String username = body.getSubject();
+
+                Integer authorityMask = body.get("auth", Integer.class);
+
+                Set<? extends GrantedAuthority> grantedAuthorities = authorityMask != null
+                        ? GrantedAuthorities.fromMask(authorityMask)
+                        : legacyAuthorities(body);
+
+                Integer generation = body.get("gen", Integer.class);
+
+                UsernamePasswordAuthenticationToken verified = new UsernamePasswordAuthenticationToken(
+                        username,
+                        null,
+                        grantedAuthorities
+                );
+                verified.setDetails(new JwtTokenDetails(
+                        body.getId(),
+                        generation == null ? 0 : generation,
+                        body.getExpiration() == null ? Long.MAX_VALUE : body.getExpiration().getTime()
+                ));
+                authentication = verified;
+
+                jwtTokenCache.put(digest, authentication, body.getExpiration());
+                outcome = SUCCESS;
+
+            } catch (ExpiredJwtException e) {
+                reject(remoteAddress, e.getClaims().getSubject(), EXPIRED, start);
+                throw new IllegalStateException(String.format("Token %s cannot be trusted", token));
+            } catch (SignatureException e) {
+                reject(remoteAddress, null, BAD_SIGNATURE, start);
+                throw new IllegalStateException(String.format("Token %s cannot be trusted", token));
+            } catch (JwtException | IllegalArgumentException e) {
+                reject(remoteAddress, null, MALFORMED, start);
+                throw new IllegalStateException(String.format("Token %s cannot be trusted", token));
+            }
+        }
+
+        // Checked on every request, cache hits included, so a revocation takes effect immediately
+        JwtTokenDetails tokenDetails = (JwtTokenDetails) authentication.getDetails();
+        if (tokenRevocationService.isRevoked(authentication.getName(), tokenDetails.getTokenId(), tokenDetails.getGeneration())) {
+            reject(remoteAddress, authentication.getName(), REVOKED, start);
+            throw new IllegalStateException(String.format("Token %s has been revoked", tokenDetails.getTokenId()));
+        }
+        securityMetrics.record(JWT_VERIFY, outcome, start);
+        return authentication;
+    }
+
+    private void reject(String remoteAddress, String username, SecurityMetrics.Outcome outcome, long start) {
+        securityMetrics.record(JWT_VERIFY, outcome, start);
+        auditLog.record(AuditEventType.TOKEN_REJECTED, username, remoteAddress, outcome.getTag());
+    }
+
+    // Tokens minted before the compact authority mask carry an array of {"authority": "..."} objects
+    private static Set<GrantedAuthority> legacyAuthorities(Claims body) {
+        var authorities = (List<Map<String, String>>) body.get("authorities");
+
+        ImmutableSet.Builder<GrantedAuthority> grantedAuthorities = ImmutableSet.builderWithExpectedSize(authorities.size());
+        for (Map<String, String> authority : authorities) {
+            grantedAuthorities.add(GrantedAuthorities.of(authority.get("authority")));
+        }
+        return grantedAuthorities.build();
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.demo.jwt;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+@Component
+public class JwtTokenCache implements MeterBinder {
+
+    private final Cache<HashCode, VerifiedToken> verifiedTokens;
+    private final LongAdder expiredCount = new LongAdder();
+
+    @Autowired
+    public JwtTokenCache(JwtConfig jwtConfig) {
+        this.verifiedTokens = CacheBuilder.newBuilder()
+                .maximumSize(jwtConfig.getTokenCacheMaximumSize())
+                .expireAfterWrite(jwtConfig.getTokenCacheTtlSeconds(), TimeUnit.SECONDS)
+                .recordStats()
+                .build();
+    }
+
+    // Hashes the token in place inside the header, so a cache hit never copies it out
+    public HashCode digest(String authorizationHeader, int tokenOffset) {
+        Hasher hasher = Hashing.sha256().newHasher();
+        for (int i = tokenOffset; i < authorizationHeader.length(); i++) {
+            hasher.putChar(authorizationHeader.charAt(i));
+        }
+        return hasher.hash();
+    }
+
+    public Authentication get(HashCode digest) {
+        VerifiedToken verifiedToken = verifiedTokens.getIfPresent(digest);
+        if (verifiedToken == null) {
+            return null;
+        }
+        // The cache TTL is only an upper bound, the token's own exp always wins
+        if (System.currentTimeMillis() >= verifiedToken.expiresAtMillis) {
+            verifiedTokens.invalidate(digest);
+            expiredCount.increment();
+            return null;
+        }
+        return verifiedToken.authentication;
+    }
+
+    public void put(HashCode digest, Authentication authentication, Date expiration) {
+        if (expiration == null) {
+            return;
+        }
+        verifiedTokens.put(digest, new VerifiedToken(authentication, expiration.getTime()));
+    }
+
+    public void invalidateAll() {
+        verifiedTokens.invalidateAll();
+    }
+
+    public long getHitCount() {
+        return verifiedTokens.stats().hitCount() - expiredCount.sum();
+    }
+
+    public long getMissCount() {
+        return verifiedTokens.stats().missCount() + expiredCount.sum();
+    }
+
+    public long getEvictionCount() {
+        return verifiedTokens.stats().evictionCount() + expiredCount.sum();
+    }
+
+    public long size() {
+        return verifiedTokens.size();
+    }
+
+    // Picked up by the actuator's registry like any other MeterBinder bean
+    @Override
+    public void bindTo(MeterRegistry meterRegistry) {
+        FunctionCounter.builder("security.jwt.cache.requests", this, JwtTokenCache::getHitCount)
+                .description("Bearer token lookups against the verified token cache")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("security.jwt.cache.requests", this, JwtTokenCache::getMissCount)
+                .description("Bearer token lookups against the verified token cache")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        FunctionCounter.builder("security.jwt.cache.evictions", this, JwtTokenCache::getEvictionCount)
+                .description("Verified tokens dropped for size, TTL or their own expiry")
+                .register(meterRegistry);
+        Gauge.builder("security.jwt.cache.size", this, JwtTokenCache::size)
+                .description("Verified tokens currently cached")
+                .register(meterRegistry);
+    }
+
+    private static class VerifiedToken {
+
+        private final Authentication authentication;
+        private final long expiresAtMillis;
+
+        private VerifiedToken(Authentication authentication, long expiresAtMillis) {
+            this.authentication = authentication;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.demo.jwt;
+
+// Attached as the details of every bearer authentication, so revocation can be checked on cache hits
+// and a caller can revoke the token it authenticated with
+public class JwtTokenDetails {
+
+    private final String tokenId;
+    private final int generation;
+    private final long expiresAtMillis;
+
+    public JwtTokenDetails(String tokenId, int generation, long expiresAtMillis) {
+        this.tokenId = tokenId;
+        this.generation = generation;
+        this.expiresAtMillis = expiresAtMillis;
+    }
+
+    public String getTokenId() {
+        return tokenId;
+    }
+
+    public int getGeneration() {
+        return generation;
+    }
+
+    public long getExpiresAtMillis() {
+        return expiresAtMillis;
+    }
+}
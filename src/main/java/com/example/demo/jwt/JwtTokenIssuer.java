@@ -0,0 +1,73 @@
+package com.example.demo.jwt;
+
+import com.example.demo.security.GrantedAuthorities;
+import com.example.demo.security.SecurityMetrics;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.Jwts;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.demo.security.SecurityMetrics.Outcome.ERROR;
+import static com.example.demo.security.SecurityMetrics.Outcome.SUCCESS;
+import static com.example.demo.security.SecurityMetrics.Stage.JWT_SIGN;
+
+// Mints the short lived access tokens handed out by both the login filter and the refresh endpoint
+@Component
+public class JwtTokenIssuer {
+
+    private final JwtKeyRing jwtKeyRing;
+    private final JwtConfig jwtConfig;
+    private final SecurityMetrics securityMetrics;
+    private final TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    public JwtTokenIssuer(JwtKeyRing jwtKeyRing,
+                          JwtConfig jwtConfig,
+                          SecurityMetrics securityMetrics,
+                          TokenRevocationService tokenRevocationService) {
+        this.jwtKeyRing = jwtKeyRing;
+        this.jwtConfig = jwtConfig;
+        this.securityMetrics = securityMetrics;
+        this.tokenRevocationService = tokenRevocationService;
+    }
+
+    public String issueAccessToken(String username, Collection<? extends GrantedAuthority> authorities) {
+        long start = SecurityMetrics.start();
+        try {
+            long now = System.currentTimeMillis();
+            // The algorithm follows the key: HS* for secret keys, ES256 for P-256, RS256 for RSA
+            JwtKeyRing.SigningKey signingKey = jwtKeyRing.getSigningKey();
+            JwtBuilder builder = Jwts.builder()
+                    .setHeaderParam(JwsHeader.KEY_ID, signingKey.getKeyId())
+                    .setId(tokenRevocationService.newTokenId())
+                    .setSubject(username)
+                    .claim("gen", tokenRevocationService.generationOf(username));
+
+            Integer authorityMask = Boolean.TRUE.equals(jwtConfig.getCompactAuthorities())
+                    ? GrantedAuthorities.toMask(authorities)
+                    : null;
+            if (authorityMask != null) {
+                builder.claim("auth", authorityMask);
+            } else {
+                builder.claim("authorities", authorities);
+            }
+
+            String token = builder
+                    .setIssuedAt(new Date(now))
+                    .setExpiration(new Date(now + TimeUnit.SECONDS.toMillis(jwtConfig.getAccessTokenExpirationSeconds())))
+                    .signWith(signingKey.getKey())
+                    .compact();
+            securityMetrics.record(JWT_SIGN, SUCCESS, start);
+            return token;
+        } catch (RuntimeException e) {
+            securityMetrics.record(JWT_SIGN, ERROR, start);
+            throw e;
+        }
+    }
+}
@@ -1,57 +1,102 @@
 package com.example.demo.jwt;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.security.Keys;
+import com.example.demo.audit.AuditEventType;
+import com.example.demo.audit.AuditLog;
+import com.example.demo.security.LoginThrottle;
+import com.example.demo.security.LoginThrottledException;
+import com.example.demo.security.PasswordVerificationRejectedException;
+import com.example.demo.security.SecurityMetrics;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
-import javax.crypto.SecretKey;
 import javax.servlet.FilterChain;
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
-import java.time.LocalDate;
-import java.util.Date;
+
+import static com.example.demo.security.SecurityMetrics.Outcome.*;
+import static com.example.demo.security.SecurityMetrics.Stage.*;
 
 public class JwtUsernameAndPasswordAuthenticationFilter extends UsernamePasswordAuthenticationFilter {
 
+    // The username of a login that got as far as being parsed, for the audit record of a failure
+    private static final String USERNAME_ATTRIBUTE = JwtUsernameAndPasswordAuthenticationFilter.class.getName() + ".username";
+
     private final AuthenticationManager authenticationManager;
     private final JwtConfig jwtConfig;
-    private final SecretKey secretKey;
+    private final SecurityMetrics securityMetrics;
+    private final LoginRequestReader loginRequestReader;
+    private final JwtTokenIssuer jwtTokenIssuer;
+    private final RefreshTokenStore refreshTokenStore;
+    private final LoginThrottle loginThrottle;
+    private final AuditLog auditLog;
 
     public JwtUsernameAndPasswordAuthenticationFilter(AuthenticationManager authenticationManager,
                                                       JwtConfig jwtConfig,
-                                                      SecretKey secretKey) {
+                                                      SecurityMetrics securityMetrics,
+                                                      JwtTokenIssuer jwtTokenIssuer,
+                                                      RefreshTokenStore refreshTokenStore,
+                                                      LoginThrottle loginThrottle,
+                                                      AuditLog auditLog) {
         this.authenticationManager = authenticationManager;
         this.jwtConfig = jwtConfig;
-        this.secretKey = secretKey;
+        this.securityMetrics = securityMetrics;
+        this.loginRequestReader = new LoginRequestReader(jwtConfig.getLoginRequestMaxBytes());
+        this.jwtTokenIssuer = jwtTokenIssuer;
+        this.refreshTokenStore = refreshTokenStore;
+        this.loginThrottle = loginThrottle;
+        this.auditLog = auditLog;
     }
 
     @Override
     public Authentication attemptAuthentication(HttpServletRequest request,
                                                 HttpServletResponse response) throws AuthenticationException {
 
+        // The remote address is the peer, X-Forwarded-For is only honoured with server.forward-headers-strategy
+        loginThrottle.acquireAddress(request.getRemoteAddr());
+
+        long start = SecurityMetrics.start();
+        UsernameAndPasswordAuthenticationRequest authenticationRequest;
         try {
-            UsernameAndPasswordAuthenticationRequest authenticationRequest = new ObjectMapper()
-                    .readValue(request.getInputStream(), UsernameAndPasswordAuthenticationRequest.class);
+            authenticationRequest = loginRequestReader.read(request.getInputStream(), request.getContentLengthLong());
+        } catch (IOException e) {
+            securityMetrics.record(LOGIN_PARSE, MALFORMED, start);
+            throw new MalformedLoginRequestException("Login request could not be read", e);
+        } catch (MalformedLoginRequestException e) {
+            securityMetrics.record(LOGIN_PARSE, MALFORMED, start);
+            throw e;
+        }
+        securityMetrics.record(LOGIN_PARSE, SUCCESS, start);
+        request.setAttribute(USERNAME_ATTRIBUTE, authenticationRequest.getUsername());
+
+        Authentication authentication = new UsernamePasswordAuthenticationToken(
+                authenticationRequest.getUsername(),
+                authenticationRequest.getPassword()
+        );
 
-            Authentication authentication = new UsernamePasswordAuthenticationToken(
-                    authenticationRequest.getUsername(),
-                    authenticationRequest.getPassword()
-            );
+        loginThrottle.checkUsername(authenticationRequest.getUsername());
 
+        start = SecurityMetrics.start();
+        try {
             Authentication authenticate = authenticationManager.authenticate(authentication);
+            securityMetrics.record(LOGIN_AUTHENTICATE, SUCCESS, start);
+            loginThrottle.recordSuccess(authenticationRequest.getUsername());
             return authenticate;
-
-        } catch (IOException e) {
-            throw new RuntimeException(e);
+        } catch (RuntimeException e) {
+            securityMetrics.record(LOGIN_AUTHENTICATE, SecurityMetrics.loginOutcomeOf(e), start);
+            if (e instanceof BadCredentialsException) {
+                loginThrottle.recordFailure(authenticationRequest.getUsername());
+            }
+            throw e;
         }
-
     }
 
     @Override
@@ -59,14 +104,39 @@ public class JwtUsernameAndPasswordAuthenticationFilter extends UsernamePassword
                                             HttpServletResponse response,
                                             FilterChain chain,
                                             Authentication authResult) throws IOException, ServletException {
-        String token = Jwts.builder()
-                .setSubject(authResult.getName())
-                .claim("authorities", authResult.getAuthorities())
-                .setIssuedAt(new Date())
-                .setExpiration(java.sql.Date.valueOf(LocalDate.now().plusDays(jwtConfig.getTokenExpirationAfterDays())))
-                .signWith(secretKey)
-                .compact();
+        String token = jwtTokenIssuer.issueAccessToken(authResult.getName(), authResult.getAuthorities());
 
         response.addHeader(jwtConfig.getAuthorizationHeader(), jwtConfig.getTokenPrefix() + token);
+        response.addHeader(jwtConfig.getRefreshTokenHeader(), refreshTokenStore.issue(authResult.getName()));
+        auditLog.record(AuditEventType.LOGIN_SUCCEEDED, authResult.getName(), request.getRemoteAddr(), null);
+    }
+
+    @Override
+    protected void unsuccessfulAuthentication(HttpServletRequest request,
+                                              HttpServletResponse response,
+                                              AuthenticationException failed) throws IOException, ServletException {
+        auditLog.record(
+                failed instanceof LoginThrottledException ? AuditEventType.LOGIN_THROTTLED : AuditEventType.LOGIN_FAILED,
+                (String) request.getAttribute(USERNAME_ATTRIBUTE),
+                request.getRemoteAddr(),
+                failed.getClass().getSimpleName()
+        );
+        if (failed instanceof PasswordVerificationRejectedException) {
+            SecurityContextHolder.clearContext();
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            return;
+        }
+        if (failed instanceof LoginThrottledException) {
+            SecurityContextHolder.clearContext();
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(((LoginThrottledException) failed).getRetryAfterSeconds()));
+            return;
+        }
+        if (failed instanceof MalformedLoginRequestException) {
+            SecurityContextHolder.clearContext();
+            response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+            return;
+        }
+        super.unsuccessfulAuthentication(request, response, failed);
     }
 }
@@ -0,0 +1,71 @@
+package com.example.demo.jwt;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.google.common.io.ByteStreams;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+// Pulls username and password straight off the token stream. The factory is shared, so field name
+// canonicalization and buffer recycling carry over between logins, and no databind machinery is involved.
+public class LoginRequestReader {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final int maxBytes;
+
+    public LoginRequestReader(int maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    // contentLength is -1 when unknown (chunked), the stream limit still caps what gets read
+    public UsernameAndPasswordAuthenticationRequest read(InputStream body, long contentLength) {
+        if (contentLength > maxBytes) {
+            throw new MalformedLoginRequestException("Login request exceeds " + maxBytes + " bytes");
+        }
+
+        // An oversized chunked body is cut off here and then fails to parse as a truncated document
+        try (JsonParser parser = JSON_FACTORY.createParser(ByteStreams.limit(body, maxBytes))) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new MalformedLoginRequestException("Login request must be a JSON object");
+            }
+
+            UsernameAndPasswordAuthenticationRequest authenticationRequest = new UsernameAndPasswordAuthenticationRequest();
+            JsonToken token;
+            while ((token = parser.nextToken()) == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if ("username".equals(field)) {
+                    authenticationRequest.setUsername(textOf(parser, value, field));
+                } else if ("password".equals(field)) {
+                    authenticationRequest.setPassword(textOf(parser, value, field));
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            if (token != JsonToken.END_OBJECT) {
+                throw new MalformedLoginRequestException("Login request is not a complete JSON object");
+            }
+
+            if (authenticationRequest.getUsername() == null || authenticationRequest.getPassword() == null) {
+                throw new MalformedLoginRequestException("Login request needs a username and a password");
+            }
+            return authenticationRequest;
+
+        } catch (IOException e) {
+            throw new MalformedLoginRequestException("Login request is not valid JSON", e);
+        }
+    }
+
+    private static String textOf(JsonParser parser, JsonToken value, String field) throws IOException {
+        if (value == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (value != JsonToken.VALUE_STRING) {
+            throw new MalformedLoginRequestException("Login request field " + field + " must be a string");
+        }
+        return parser.getText();
+    }
+}
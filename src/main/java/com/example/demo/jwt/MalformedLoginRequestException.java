@@ -0,0 +1,14 @@
+package com.example.demo.jwt;
+
+import org.springframework.security.authentication.AuthenticationServiceException;
+
+public class MalformedLoginRequestException extends AuthenticationServiceException {
+
+    public MalformedLoginRequestException(String msg) {
+        super(msg);
+    }
+
+    public MalformedLoginRequestException(String msg, Throwable t) {
+        super(msg, t);
+    }
+}
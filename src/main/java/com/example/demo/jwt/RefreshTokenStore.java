@@ -0,0 +1,282 @@
+package com.example.demo.jwt;
+
+import com.example.demo.security.SecurityMetrics;
+import com.example.demo.storage.RecordLog;
+import com.example.demo.storage.StorageEngine;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+import com.google.common.io.BaseEncoding;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.demo.security.SecurityMetrics.Outcome.*;
+
+// Opaque, single use refresh tokens. Every login starts a family and each refresh replaces the family's
+// current token with a new one. Presenting a token that was already rotated away means it was copied,
+// so the whole family is revoked and both the thief and the owner have to log in again. A family ends
+// refreshTokenFamilyLifetimeSeconds after its login however often it is rotated.
+// Only SHA-256 digests of the tokens are kept, in memory and in the "refresh-tokens" record log.
+@Component
+public class RefreshTokenStore {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RefreshTokenStore.class);
+    private static final int TOKEN_BYTES = 32;
+    private static final int DIGEST_BYTES = 32;
+    // Rotated tokens a family remembers for reuse detection, an older one is just unknown
+    private static final int REMEMBERED_ROTATIONS = 16;
+
+    private final JwtConfig jwtConfig;
+    private final TokenRevocationService tokenRevocationService;
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    // The current token of every family and its last few rotated ones, so reuse can be told apart from
+    // garbage. Rotated tokens are not persisted, after a restart a replayed one is just unknown.
+    private final ConcurrentMap<HashCode, IssuedToken> issuedTokens = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Family> families = new ConcurrentHashMap<>();
+
+    // Null when storage is disabled
+    private final RecordLog recordLog;
+
+    @Autowired
+    public RefreshTokenStore(JwtConfig jwtConfig,
+                             TokenRevocationService tokenRevocationService,
+                             StorageEngine storageEngine) {
+        this.jwtConfig = jwtConfig;
+        this.tokenRevocationService = tokenRevocationService;
+        this.recordLog = storageEngine.open("refresh-tokens").orElse(null);
+
+        if (recordLog != null) {
+            recordLog.forEach((familyId, value) -> {
+                Family family = decode(familyId, value);
+                families.put(familyId, family);
+                issuedTokens.put(family.currentToken, new IssuedToken(familyId, family.expiresAtMillis));
+            });
+        }
+    }
+
+    public String issue(String username) {
+        String familyId = tokenRevocationService.newTokenId();
+        String refreshToken = newToken();
+        HashCode digest = digest(refreshToken);
+
+        long endsAtMillis = System.currentTimeMillis()
+                + TimeUnit.SECONDS.toMillis(jwtConfig.getRefreshTokenFamilyLifetimeSeconds());
+        Family family = new Family(username, tokenRevocationService.generationOf(username), digest,
+                Math.min(expiresAt(), endsAtMillis), endsAtMillis);
+        families.put(familyId, family);
+        issuedTokens.put(digest, new IssuedToken(familyId, family.expiresAtMillis));
+        synchronized (family) {
+            persist(familyId, family);
+        }
+        return refreshToken;
+    }
+
+    public Rotation rotate(String refreshToken) {
+        HashCode digest = digest(refreshToken);
+        IssuedToken issuedToken = issuedTokens.get(digest);
+        Family family = issuedToken == null ? null : families.get(issuedToken.familyId);
+        if (family == null) {
+            return Rotation.failed(BAD_CREDENTIALS);
+        }
+
+        synchronized (family) {
+            if (family.removed) {
+                return Rotation.failed(REVOKED);
+            }
+            if (!family.currentToken.equals(digest)) {
+                LOGGER.warn("Refresh token reuse for {}, revoking token family {}", family.username, issuedToken.familyId);
+                remove(issuedToken.familyId, family);
+                return Rotation.failed(REUSED);
+            }
+            if (family.expiresAtMillis <= System.currentTimeMillis()) {
+                remove(issuedToken.familyId, family);
+                return Rotation.failed(EXPIRED);
+            }
+            // revokeAll also ends every refresh token family started before it
+            if (family.generation < tokenRevocationService.generationOf(family.username)) {
+                remove(issuedToken.familyId, family);
+                return Rotation.failed(REVOKED);
+            }
+
+            String rotated = newToken();
+            family.rotatedTokens.addLast(family.currentToken);
+            if (family.rotatedTokens.size() > REMEMBERED_ROTATIONS) {
+                issuedTokens.remove(family.rotatedTokens.removeFirst());
+            }
+            family.currentToken = digest(rotated);
+            family.expiresAtMillis = Math.min(expiresAt(), family.endsAtMillis);
+            issuedTokens.put(family.currentToken, new IssuedToken(issuedToken.familyId, family.expiresAtMillis));
+            persist(issuedToken.familyId, family);
+            return new Rotation(SUCCESS, family.username, rotated);
+        }
+    }
+
+    public void revoke(String refreshToken) {
+        IssuedToken issuedToken = issuedTokens.get(digest(refreshToken));
+        Family family = issuedToken == null ? null : families.get(issuedToken.familyId);
+        if (family != null) {
+            remove(issuedToken.familyId, family);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${application.jwt.refreshTokenPurgeIntervalMillis}")
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        issuedTokens.values().removeIf(issuedToken -> issuedToken.expiresAtMillis <= now);
+        for (Map.Entry<String, Family> entry : families.entrySet()) {
+            Family family = entry.getValue();
+            synchronized (family) {
+                if (family.expiresAtMillis <= now) {
+                    remove(entry.getKey(), family);
+                }
+            }
+        }
+    }
+
+    public int getFamilyCount() {
+        return families.size();
+    }
+
+    // Under the family's monitor, so a rotation racing with the removal cannot persist the family again
+    private void remove(String familyId, Family family) {
+        synchronized (family) {
+            if (family.removed) {
+                return;
+            }
+            family.removed = true;
+            families.remove(familyId, family);
+            issuedTokens.remove(family.currentToken);
+            family.rotatedTokens.forEach(issuedTokens::remove);
+            family.rotatedTokens.clear();
+            if (recordLog != null) {
+                recordLog.delete(familyId);
+            }
+        }
+    }
+
+    private String newToken() {
+        byte[] token = new byte[TOKEN_BYTES];
+        secureRandom.nextBytes(token);
+        return BaseEncoding.base64Url().omitPadding().encode(token);
+    }
+
+    private long expiresAt() {
+        return System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(jwtConfig.getRefreshTokenExpirationSeconds());
+    }
+
+    private static HashCode digest(String refreshToken) {
+        return Hashing.sha256().hashString(refreshToken, StandardCharsets.US_ASCII);
+    }
+
+    private void persist(String familyId, Family family) {
+        if (recordLog == null) {
+            return;
+        }
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeUTF(family.username);
+            out.writeInt(family.generation);
+            out.writeLong(family.expiresAtMillis);
+            out.write(family.currentToken.asBytes());
+            out.writeLong(family.endsAtMillis);
+            recordLog.put(familyId, bytes.toByteArray());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Family decode(String familyId, byte[] value) {
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(value));
+            String username = in.readUTF();
+            int generation = in.readInt();
+            long expiresAtMillis = in.readLong();
+            byte[] currentToken = new byte[DIGEST_BYTES];
+            in.readFully(currentToken);
+            // Families written before they had an end stop at their current token's expiry
+            long endsAtMillis = in.available() > 0 ? in.readLong() : expiresAtMillis;
+            return new Family(username, generation, HashCode.fromBytes(currentToken), expiresAtMillis, endsAtMillis);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Corrupt refresh token family " + familyId, e);
+        }
+    }
+
+    public static class Rotation {
+
+        private final SecurityMetrics.Outcome outcome;
+        private final String username;
+        private final String refreshToken;
+
+        private Rotation(SecurityMetrics.Outcome outcome, String username, String refreshToken) {
+            this.outcome = outcome;
+            this.username = username;
+            this.refreshToken = refreshToken;
+        }
+
+        private static Rotation failed(SecurityMetrics.Outcome outcome) {
+            return new Rotation(outcome, null, null);
+        }
+
+        public SecurityMetrics.Outcome getOutcome() {
+            return outcome;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public String getRefreshToken() {
+            return refreshToken;
+        }
+    }
+
+    private static class IssuedToken {
+
+        private final String familyId;
+        private final long expiresAtMillis;
+
+        private IssuedToken(String familyId, long expiresAtMillis) {
+            this.familyId = familyId;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+    }
+
+    // The tokens, expiry and removed flag only change under the family's monitor
+    private static class Family {
+
+        private final String username;
+        private final int generation;
+        private final long endsAtMillis;
+        private final Deque<HashCode> rotatedTokens = new ArrayDeque<>();
+        private HashCode currentToken;
+        private long expiresAtMillis;
+        private boolean removed;
+
+        private Family(String username, int generation, HashCode currentToken, long expiresAtMillis, long endsAtMillis) {
+            this.username = username;
+            this.generation = generation;
+            this.currentToken = currentToken;
+            this.expiresAtMillis = expiresAtMillis;
+            this.endsAtMillis = endsAtMillis;
+        }
+    }
+}
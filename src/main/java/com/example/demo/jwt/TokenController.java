@@ -0,0 +1,112 @@
+package com.example.demo.jwt;
+
+import com.example.demo.audit.AuditEventType;
+import com.example.demo.audit.AuditLog;
+import com.example.demo.auth.ApplicationUserService;
+import com.example.demo.security.SecurityMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.AccountStatusException;
+import org.springframework.security.authentication.AccountStatusUserDetailsChecker;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.servlet.http.HttpServletRequest;
+
+import static com.example.demo.security.SecurityMetrics.Outcome.DENIED;
+import static com.example.demo.security.SecurityMetrics.Outcome.SUCCESS;
+import static com.example.demo.security.SecurityMetrics.Stage.JWT_REFRESH;
+
+@RestController
+@RequestMapping("tokens")
+@Profile("!reactive")
+public class TokenController {
+
+    private final TokenRevocationService tokenRevocationService;
+    private final RefreshTokenStore refreshTokenStore;
+    private final JwtTokenIssuer jwtTokenIssuer;
+    private final ApplicationUserService applicationUserService;
+    private final JwtConfig jwtConfig;
+    private final SecurityMetrics securityMetrics;
+    private final AuditLog auditLog;
+    private final AccountStatusUserDetailsChecker accountStatusChecker = new AccountStatusUserDetailsChecker();
+
+    @Autowired
+    public TokenController(TokenRevocationService tokenRevocationService,
+                           RefreshTokenStore refreshTokenStore,
+                           JwtTokenIssuer jwtTokenIssuer,
+                           ApplicationUserService applicationUserService,
+                           JwtConfig jwtConfig,
+                           SecurityMetrics securityMetrics,
+                           AuditLog auditLog) {
+        this.tokenRevocationService = tokenRevocationService;
+        this.refreshTokenStore = refreshTokenStore;
+        this.jwtTokenIssuer = jwtTokenIssuer;
+        this.applicationUserService = applicationUserService;
+        this.jwtConfig = jwtConfig;
+        this.securityMetrics = securityMetrics;
+        this.auditLog = auditLog;
+    }
+
+    // Trades a refresh token for a new access token and a new refresh token. The user is looked up again,
+    // so authority changes and disabled accounts apply on the next refresh, but no password is hashed.
+    @PostMapping(path = "refresh")
+    public ResponseEntity<Void> refresh(@RequestHeader("Refresh-Token") String refreshToken, HttpServletRequest request) {
+        long start = SecurityMetrics.start();
+        RefreshTokenStore.Rotation rotation = refreshTokenStore.rotate(refreshToken);
+        if (rotation.getOutcome() != SUCCESS) {
+            securityMetrics.record(JWT_REFRESH, rotation.getOutcome(), start);
+            auditLog.record(AuditEventType.TOKEN_REJECTED, null, request.getRemoteAddr(), "refresh_" + rotation.getOutcome().getTag());
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        UserDetails user;
+        try {
+            user = applicationUserService.loadStoredUserByUsername(rotation.getUsername());
+            accountStatusChecker.check(user);
+        } catch (UsernameNotFoundException | AccountStatusException e) {
+            refreshTokenStore.revoke(rotation.getRefreshToken());
+            securityMetrics.record(JWT_REFRESH, DENIED, start);
+            auditLog.record(AuditEventType.TOKEN_REJECTED, rotation.getUsername(), request.getRemoteAddr(), "refresh_denied");
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        String token = jwtTokenIssuer.issueAccessToken(user.getUsername(), user.getAuthorities());
+        securityMetrics.record(JWT_REFRESH, SUCCESS, start);
+        return ResponseEntity.noContent()
+                .header(jwtConfig.getAuthorizationHeader(), jwtConfig.getTokenPrefix() + token)
+                .header(jwtConfig.getRefreshTokenHeader(), rotation.getRefreshToken())
+                .build();
+    }
+
+    // Logout for a stateless client: the token used for this request stops working, and so does the
+    // refresh token family if the client sends its refresh token along
+    @DeleteMapping(path = "current")
+    public void revokeCurrentToken(@RequestHeader(name = "Refresh-Token", required = false) String refreshToken,
+                                   HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (!(authentication.getDetails() instanceof JwtTokenDetails)) {
+            throw new IllegalStateException("Request was not authenticated with a bearer token");
+        }
+        JwtTokenDetails tokenDetails = (JwtTokenDetails) authentication.getDetails();
+        if (tokenDetails.getTokenId() == null) {
+            // Tokens from before jti existed can only be revoked together with the rest of the user's tokens
+            tokenRevocationService.revokeAll(authentication.getName());
+        } else {
+            tokenRevocationService.revoke(tokenDetails.getTokenId(), tokenDetails.getExpiresAtMillis());
+        }
+        if (refreshToken != null) {
+            refreshTokenStore.revoke(refreshToken);
+        }
+        auditLog.record(AuditEventType.TOKEN_REVOKED, request, tokenDetails.getTokenId());
+    }
+}
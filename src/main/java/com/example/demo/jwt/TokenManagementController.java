@@ -0,0 +1,42 @@
+package com.example.demo.jwt;
+
+import com.example.demo.audit.AuditEventType;
+import com.example.demo.audit.AuditLog;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.servlet.http.HttpServletRequest;
+
+@RestController
+@RequestMapping("management/api/v1/tokens")
+@Profile("!reactive")
+public class TokenManagementController {
+
+    private final TokenRevocationService tokenRevocationService;
+    private final AuditLog auditLog;
+
+    @Autowired
+    public TokenManagementController(TokenRevocationService tokenRevocationService, AuditLog auditLog) {
+        this.tokenRevocationService = tokenRevocationService;
+        this.auditLog = auditLog;
+    }
+
+    @DeleteMapping(path = "{tokenId}")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public void revokeToken(@PathVariable("tokenId") String tokenId, HttpServletRequest request) {
+        tokenRevocationService.revoke(tokenId);
+        auditLog.record(AuditEventType.TOKEN_REVOKED, request, tokenId);
+    }
+
+    @DeleteMapping(path = "users/{username}")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public void revokeAllTokens(@PathVariable("username") String username, HttpServletRequest request) {
+        tokenRevocationService.revokeAll(username);
+        auditLog.record(AuditEventType.TOKENS_REVOKED, request, username);
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.demo.jwt;
+
+import com.example.demo.security.StringBloomFilter;
+import com.example.demo.storage.RecordLog;
+import com.example.demo.storage.StorageEngine;
+import com.google.common.io.BaseEncoding;
+import com.google.common.primitives.Ints;
+import com.google.common.primitives.Longs;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+@Component
+public class TokenRevocationService implements MeterBinder {
+
+    private static final String TOKEN_KEY_PREFIX = "jti:";
+    private static final String GENERATION_KEY_PREFIX = "gen:";
+    private static final int TOKEN_ID_BYTES = 16;
+
+    private final JwtConfig jwtConfig;
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    // Revoked token id -> the token's own expiry, after which the entry is useless and gets purged.
+    // The bloom filter answers the common "never revoked" case without touching the map.
+    private final ConcurrentMap<String, Long> revokedTokens = new ConcurrentHashMap<>();
+    private volatile StringBloomFilter revokedTokenFilter;
+
+    // Bumping a user's generation invalidates every token minted before it
+    private final ConcurrentMap<String, Integer> userGenerations = new ConcurrentHashMap<>();
+
+    // Null when storage is disabled
+    private final RecordLog recordLog;
+
+    @Autowired
+    public TokenRevocationService(JwtConfig jwtConfig, StorageEngine storageEngine) {
+        this.jwtConfig = jwtConfig;
+        this.recordLog = storageEngine.open("revocations").orElse(null);
+
+        if (recordLog != null) {
+            recordLog.forEach((key, value) -> {
+                if (key.startsWith(TOKEN_KEY_PREFIX)) {
+                    revokedTokens.put(key.substring(TOKEN_KEY_PREFIX.length()), Longs.fromByteArray(value));
+                } else if (key.startsWith(GENERATION_KEY_PREFIX)) {
+                    userGenerations.put(key.substring(GENERATION_KEY_PREFIX.length()), Ints.fromByteArray(value));
+                }
+            });
+        }
+        this.revokedTokenFilter = newFilter();
+    }
+
+    public String newTokenId() {
+        byte[] tokenId = new byte[TOKEN_ID_BYTES];
+        secureRandom.nextBytes(tokenId);
+        return BaseEncoding.base64Url().omitPadding().encode(tokenId);
+    }
+
+    public int generationOf(String username) {
+        return userGenerations.getOrDefault(username, 0);
+    }
+
+    // Tokens minted before jti and gen claims existed carry neither and can only expire
+    public boolean isRevoked(String username, String tokenId, int generation) {
+        if (generation < generationOf(username)) {
+            return true;
+        }
+        return tokenId != null
+                && revokedTokenFilter.mightContain(tokenId)
+                && revokedTokens.containsKey(tokenId);
+    }
+
+    // Without the token at hand its expiry is unknown, so the entry is kept for the longest lifetime a token can have
+    public void revoke(String tokenId) {
+        revoke(tokenId, System.currentTimeMillis() + maxTokenLifetimeMillis());
+    }
+
+    public void revoke(String tokenId, long expiresAtMillis) {
+        revokedTokens.compute(tokenId, (key, existing) -> {
+            long keepUntil = existing == null ? expiresAtMillis : Math.max(existing, expiresAtMillis);
+            if (recordLog != null) {
+                recordLog.put(TOKEN_KEY_PREFIX + key, Longs.toByteArray(keepUntil));
+            }
+            return keepUntil;
+        });
+        // After the map and under the rebuild's lock, so the token is either read by a rebuild or put into its filter
+        synchronized (this) {
+            revokedTokenFilter.put(tokenId);
+        }
+    }
+
+    public int revokeAll(String username) {
+        return userGenerations.compute(username, (key, generation) -> {
+            int next = generation == null ? 1 : generation + 1;
+            if (recordLog != null) {
+                recordLog.put(GENERATION_KEY_PREFIX + username, Ints.toByteArray(next));
+            }
+            return next;
+        });
+    }
+
+    public int getRevokedTokenCount() {
+        return revokedTokens.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry meterRegistry) {
+        Gauge.builder("security.jwt.revoked", this, TokenRevocationService::getRevokedTokenCount)
+                .description("Revoked tokens that have not expired yet")
+                .register(meterRegistry);
+    }
+
+    // Drops revocations whose token has expired anyway and rebuilds the filter from what is left,
+    // which also resets the false positive rate after a burst of revocations
+    @Scheduled(fixedDelayString = "${application.jwt.revocationPurgeIntervalMillis}")
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        for (Map.Entry<String, Long> entry : revokedTokens.entrySet()) {
+            if (entry.getValue() <= now) {
+                revokedTokens.computeIfPresent(entry.getKey(), (tokenId, expiresAtMillis) -> {
+                    if (expiresAtMillis > now) {
+                        return expiresAtMillis;
+                    }
+                    if (recordLog != null) {
+                        recordLog.delete(TOKEN_KEY_PREFIX + tokenId);
+                    }
+                    return null;
+                });
+            }
+        }
+
+        rebuildFilter();
+    }
+
+    private synchronized void rebuildFilter() {
+        revokedTokenFilter = newFilter();
+    }
+
+    private StringBloomFilter newFilter() {
+        int expectedTokens = Math.max(jwtConfig.getRevocationExpectedTokens(), revokedTokens.size() * 2);
+        StringBloomFilter filter = new StringBloomFilter(expectedTokens, jwtConfig.getRevocationFalsePositiveRate());
+        for (String tokenId : revokedTokens.keySet()) {
+            filter.put(tokenId);
+        }
+        return filter;
+    }
+
+    private long maxTokenLifetimeMillis() {
+        return TimeUnit.SECONDS.toMillis(jwtConfig.getAccessTokenExpirationSeconds());
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.demo.reactive;
+
+import com.example.demo.jwt.JwtConfig;
+import com.example.demo.jwt.JwtTokenAuthenticator;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+// The reactive JwtTokenVerifier. Verification never blocks, so it runs inline on the event loop and the
+// authentication travels down the chain in the subscriber context instead of a thread local.
+public class JwtTokenWebFilter implements WebFilter {
+
+    private final JwtConfig jwtConfig;
+    private final JwtTokenAuthenticator jwtTokenAuthenticator;
+
+    public JwtTokenWebFilter(JwtConfig jwtConfig, JwtTokenAuthenticator jwtTokenAuthenticator) {
+        this.jwtConfig = jwtConfig;
+        this.jwtTokenAuthenticator = jwtTokenAuthenticator;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        Authentication authentication;
+        try {
+            authentication = jwtTokenAuthenticator.authenticate(
+                    exchange.getRequest().getHeaders().getFirst(jwtConfig.getAuthorizationHeader()),
+                    ReactiveRequests.remoteAddress(exchange.getRequest())
+            );
+        } catch (IllegalStateException e) {
+            exchange.getResponse().setStatusCode(HttpStatus.FORBIDDEN);
+            return exchange.getResponse().setComplete();
+        }
+
+        if (authentication == null) {
+            return chain.filter(exchange);
+        }
+        return chain.filter(exchange).subscriberContext(ReactiveSecurityContextHolder.withAuthentication(authentication));
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.demo.reactive;
+
+import com.example.demo.jwt.JwtConfig;
+import com.example.demo.jwt.LoginRequestReader;
+import com.example.demo.jwt.MalformedLoginRequestException;
+import com.example.demo.jwt.UsernameAndPasswordAuthenticationRequest;
+import com.example.demo.security.LoginThrottle;
+import com.example.demo.security.SecurityMetrics;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.server.authentication.ServerAuthenticationConverter;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import static com.example.demo.security.SecurityMetrics.Outcome.MALFORMED;
+import static com.example.demo.security.SecurityMetrics.Outcome.SUCCESS;
+import static com.example.demo.security.SecurityMetrics.Stage.LOGIN_PARSE;
+
+// The first half of JwtUsernameAndPasswordAuthenticationFilter.attemptAuthentication: throttle the address,
+// collect the body without blocking, parse it with the same LoginRequestReader and throttle the username
+public class LoginAuthenticationConverter implements ServerAuthenticationConverter {
+
+    // The username of a login that got as far as being parsed, for the audit record of a failure
+    static final String USERNAME_ATTRIBUTE = LoginAuthenticationConverter.class.getName() + ".username";
+
+    private final SecurityMetrics securityMetrics;
+    private final LoginThrottle loginThrottle;
+    private final LoginRequestReader loginRequestReader;
+    private final int maxBytes;
+
+    public LoginAuthenticationConverter(JwtConfig jwtConfig, SecurityMetrics securityMetrics, LoginThrottle loginThrottle) {
+        this.securityMetrics = securityMetrics;
+        this.loginThrottle = loginThrottle;
+        this.maxBytes = jwtConfig.getLoginRequestMaxBytes();
+        this.loginRequestReader = new LoginRequestReader(maxBytes);
+    }
+
+    @Override
+    public Mono<Authentication> convert(ServerWebExchange exchange) {
+        return Mono.defer(() -> {
+            loginThrottle.acquireAddress(ReactiveRequests.remoteAddress(exchange.getRequest()));
+
+            long start = SecurityMetrics.start();
+            return readBody(exchange.getRequest())
+                    .map(body -> {
+                        try {
+                            return loginRequestReader.read(body.asInputStream(), body.readableByteCount());
+                        } finally {
+                            DataBufferUtils.release(body);
+                        }
+                    })
+                    .switchIfEmpty(Mono.error(new MalformedLoginRequestException("Login request has no body")))
+                    .doOnError(e -> securityMetrics.record(LOGIN_PARSE, MALFORMED, start))
+                    .map(authenticationRequest -> {
+                        securityMetrics.record(LOGIN_PARSE, SUCCESS, start);
+                        exchange.getAttributes().put(USERNAME_ATTRIBUTE, authenticationRequest.getUsername());
+                        loginThrottle.checkUsername(authenticationRequest.getUsername());
+                        return toAuthentication(authenticationRequest);
+                    });
+        });
+    }
+
+    // Chunks are counted as they arrive, an oversized body is refused before it is buffered in full
+    private Mono<DataBuffer> readBody(ServerHttpRequest request) {
+        if (request.getHeaders().getContentLength() > maxBytes) {
+            return Mono.error(new MalformedLoginRequestException("Login request exceeds " + maxBytes + " bytes"));
+        }
+        return DataBufferUtils.join(Flux.defer(() -> {
+            int[] received = new int[1];
+            return request.getBody().handle((buffer, sink) -> {
+                received[0] += buffer.readableByteCount();
+                if (received[0] > maxBytes) {
+                    DataBufferUtils.release(buffer);
+                    sink.error(new MalformedLoginRequestException("Login request exceeds " + maxBytes + " bytes"));
+                } else {
+                    sink.next(buffer);
+                }
+            });
+        }));
+    }
+
+    private static Authentication toAuthentication(UsernameAndPasswordAuthenticationRequest authenticationRequest) {
+        return new UsernamePasswordAuthenticationToken(
+                authenticationRequest.getUsername(),
+                authenticationRequest.getPassword()
+        );
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.demo.reactive;
+
+import com.example.demo.audit.AuditEventType;
+import com.example.demo.audit.AuditLog;
+import com.example.demo.jwt.JwtConfig;
+import com.example.demo.jwt.JwtTokenIssuer;
+import com.example.demo.jwt.MalformedLoginRequestException;
+import com.example.demo.jwt.RefreshTokenStore;
+import com.example.demo.security.LoginThrottle;
+import com.example.demo.security.LoginThrottledException;
+import com.example.demo.security.PasswordVerificationRejectedException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.web.server.WebFilterExchange;
+import org.springframework.security.web.server.authentication.ServerAuthenticationFailureHandler;
+import org.springframework.security.web.server.authentication.ServerAuthenticationSuccessHandler;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+// The second half of JwtUsernameAndPasswordAuthenticationFilter: tokens in the response headers on success,
+// the same status codes, throttle bookkeeping and audit records on failure
+public class LoginResponseHandler implements ServerAuthenticationSuccessHandler, ServerAuthenticationFailureHandler {
+
+    private final JwtConfig jwtConfig;
+    private final JwtTokenIssuer jwtTokenIssuer;
+    private final RefreshTokenStore refreshTokenStore;
+    private final LoginThrottle loginThrottle;
+    private final AuditLog auditLog;
+
+    public LoginResponseHandler(JwtConfig jwtConfig,
+                                JwtTokenIssuer jwtTokenIssuer,
+                                RefreshTokenStore refreshTokenStore,
+                                LoginThrottle loginThrottle,
+                                AuditLog auditLog) {
+        this.jwtConfig = jwtConfig;
+        this.jwtTokenIssuer = jwtTokenIssuer;
+        this.refreshTokenStore = refreshTokenStore;
+        this.loginThrottle = loginThrottle;
+        this.auditLog = auditLog;
+    }
+
+    @Override
+    public Mono<Void> onAuthenticationSuccess(WebFilterExchange webFilterExchange, Authentication authentication) {
+        ServerWebExchange exchange = webFilterExchange.getExchange();
+        loginThrottle.recordSuccess(authentication.getName());
+
+        String token = jwtTokenIssuer.issueAccessToken(authentication.getName(), authentication.getAuthorities());
+
+        HttpHeaders headers = exchange.getResponse().getHeaders();
+        headers.add(jwtConfig.getAuthorizationHeader(), jwtConfig.getTokenPrefix() + token);
+        headers.add(jwtConfig.getRefreshTokenHeader(), refreshTokenStore.issue(authentication.getName()));
+        auditLog.record(AuditEventType.LOGIN_SUCCEEDED, authentication.getName(),
+                ReactiveRequests.remoteAddress(exchange.getRequest()), null);
+        return Mono.empty();
+    }
+
+    @Override
+    public Mono<Void> onAuthenticationFailure(WebFilterExchange webFilterExchange, AuthenticationException failed) {
+        ServerWebExchange exchange = webFilterExchange.getExchange();
+        String username = exchange.getAttribute(LoginAuthenticationConverter.USERNAME_ATTRIBUTE);
+        if (failed instanceof BadCredentialsException && username != null) {
+            loginThrottle.recordFailure(username);
+        }
+        auditLog.record(
+                failed instanceof LoginThrottledException ? AuditEventType.LOGIN_THROTTLED : AuditEventType.LOGIN_FAILED,
+                username,
+                ReactiveRequests.remoteAddress(exchange.getRequest()),
+                failed.getClass().getSimpleName()
+        );
+
+        ServerHttpResponse response = exchange.getResponse();
+        if (failed instanceof PasswordVerificationRejectedException) {
+            response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+        } else if (failed instanceof LoginThrottledException) {
+            response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+            response.getHeaders().set(HttpHeaders.RETRY_AFTER, Long.toString(((LoginThrottledException) failed).getRetryAfterSeconds()));
+        } else if (failed instanceof MalformedLoginRequestException) {
+            response.setStatusCode(HttpStatus.BAD_REQUEST);
+        } else {
+            response.setStatusCode(HttpStatus.UNAUTHORIZED);
+        }
+        return response.setComplete();
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.demo.reactive;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.web.server.WebFilterExchange;
+import org.springframework.security.web.server.util.matcher.ServerWebExchangeMatcher;
+import org.springframework.security.web.server.util.matcher.ServerWebExchangeMatchers;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+// POST /login, the reactive JwtUsernameAndPasswordAuthenticationFilter. AuthenticationWebFilter is not used
+// because it lets failures raised while reading the body escape as a 500 instead of reaching the failure
+// handler, and a malformed or throttled login has to be answered like any other failed one.
+public class LoginWebFilter implements WebFilter {
+
+    private final ServerWebExchangeMatcher loginMatcher = ServerWebExchangeMatchers.pathMatchers(HttpMethod.POST, "/login");
+
+    private final LoginAuthenticationConverter loginAuthenticationConverter;
+    private final ReactiveAuthenticationManager authenticationManager;
+    private final LoginResponseHandler loginResponseHandler;
+
+    public LoginWebFilter(LoginAuthenticationConverter loginAuthenticationConverter,
+                          ReactiveAuthenticationManager authenticationManager,
+                          LoginResponseHandler loginResponseHandler) {
+        this.loginAuthenticationConverter = loginAuthenticationConverter;
+        this.authenticationManager = authenticationManager;
+        this.loginResponseHandler = loginResponseHandler;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        return loginMatcher.matches(exchange)
+                .flatMap(match -> match.isMatch() ? login(new WebFilterExchange(exchange, chain)) : chain.filter(exchange));
+    }
+
+    private Mono<Void> login(WebFilterExchange webFilterExchange) {
+        return loginAuthenticationConverter.convert(webFilterExchange.getExchange())
+                .flatMap(authenticationManager::authenticate)
+                .flatMap(authentication -> loginResponseHandler.onAuthenticationSuccess(webFilterExchange, authentication))
+                .onErrorResume(AuthenticationException.class,
+                        failed -> loginResponseHandler.onAuthenticationFailure(webFilterExchange, failed));
+    }
+}
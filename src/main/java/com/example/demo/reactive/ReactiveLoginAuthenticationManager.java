@@ -0,0 +1,99 @@
+package com.example.demo.reactive;
+
+import com.example.demo.auth.ApplicationUserService;
+import com.example.demo.security.BoundedPasswordEncoder;
+import com.example.demo.security.SecurityMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.authentication.AccountExpiredException;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.CredentialsExpiredException;
+import org.springframework.security.authentication.DisabledException;
+import org.springframework.security.authentication.LockedException;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import static com.example.demo.security.SecurityMetrics.Outcome.SUCCESS;
+import static com.example.demo.security.SecurityMetrics.Stage.LOGIN_AUTHENTICATE;
+
+// What DaoAuthenticationProvider does for the servlet login, without blocking the caller. The user lookup is
+// in memory and stays on the event loop; the BCrypt verify runs on BoundedPasswordEncoder's verifier pool,
+// whose queue bound turns overload into a PasswordVerificationRejectedException rather than a backlog.
+@Component
+@Profile("reactive")
+public class ReactiveLoginAuthenticationManager implements ReactiveAuthenticationManager {
+
+    private static final String USER_NOT_FOUND_PASSWORD = "userNotFoundPassword";
+
+    private final ApplicationUserService applicationUserService;
+    private final BoundedPasswordEncoder passwordEncoder;
+    private final SecurityMetrics securityMetrics;
+    private final String userNotFoundEncodedPassword;
+
+    @Autowired
+    public ReactiveLoginAuthenticationManager(ApplicationUserService applicationUserService,
+                                              BoundedPasswordEncoder passwordEncoder,
+                                              SecurityMetrics securityMetrics) {
+        this.applicationUserService = applicationUserService;
+        this.passwordEncoder = passwordEncoder;
+        this.securityMetrics = securityMetrics;
+        this.userNotFoundEncodedPassword = passwordEncoder.encode(USER_NOT_FOUND_PASSWORD);
+    }
+
+    @Override
+    public Mono<Authentication> authenticate(Authentication authentication) {
+        return Mono.defer(() -> {
+            long start = SecurityMetrics.start();
+            return verify(authentication.getName(), String.valueOf(authentication.getCredentials()))
+                    .doOnSuccess(verified -> securityMetrics.record(LOGIN_AUTHENTICATE, SUCCESS, start))
+                    .doOnError(e -> securityMetrics.record(LOGIN_AUTHENTICATE, SecurityMetrics.loginOutcomeOf(e), start));
+        });
+    }
+
+    private Mono<Authentication> verify(String username, String presentedPassword) {
+        UserDetails user;
+        try {
+            user = applicationUserService.loadUserByUsername(username);
+        } catch (UsernameNotFoundException e) {
+            // Hashed against a dummy so an unknown username costs the same as a wrong password
+            return Mono.fromFuture(passwordEncoder.matchesAsync(presentedPassword, userNotFoundEncodedPassword))
+                    .then(Mono.error(new BadCredentialsException("Bad credentials")));
+        }
+
+        // Turned away before hashing, this includes usernames the login throttle has locked
+        if (!user.isAccountNonLocked()) {
+            return Mono.error(new LockedException("User account is locked"));
+        }
+        if (!user.isEnabled()) {
+            return Mono.error(new DisabledException("User is disabled"));
+        }
+        if (!user.isAccountNonExpired()) {
+            return Mono.error(new AccountExpiredException("User account has expired"));
+        }
+
+        // Continues on the verifier thread that completed the hash, never on the event loop
+        return Mono.fromFuture(passwordEncoder.matchesAsync(presentedPassword, user.getPassword()))
+                .flatMap(matches -> {
+                    if (!matches) {
+                        return Mono.error(new BadCredentialsException("Bad credentials"));
+                    }
+                    if (!user.isCredentialsNonExpired()) {
+                        return Mono.error(new CredentialsExpiredException("User credentials have expired"));
+                    }
+                    return Mono.just(successfulAuthentication(user, presentedPassword));
+                });
+    }
+
+    // Rehashing with the current work factor is more BCrypt, which is why it stays on the verifier thread
+    private Authentication successfulAuthentication(UserDetails user, String presentedPassword) {
+        if (passwordEncoder.upgradeEncoding(user.getPassword())) {
+            user = applicationUserService.updatePassword(user, passwordEncoder.encode(presentedPassword));
+        }
+        return new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.demo.reactive;
+
+import org.springframework.http.server.reactive.ServerHttpRequest;
+
+import java.net.InetSocketAddress;
+
+final class ReactiveRequests {
+
+    private ReactiveRequests() {
+    }
+
+    // The peer address, the reactive counterpart of HttpServletRequest.getRemoteAddr
+    static String remoteAddress(ServerHttpRequest request) {
+        InetSocketAddress remoteAddress = request.getRemoteAddress();
+        if (remoteAddress == null) {
+            return null;
+        }
+        return remoteAddress.getAddress() == null ? remoteAddress.getHostString() : remoteAddress.getAddress().getHostAddress();
+    }
+}
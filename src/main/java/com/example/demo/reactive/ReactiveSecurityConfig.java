@@ -0,0 +1,98 @@
+package com.example.demo.reactive;
+
+import com.example.demo.audit.AuditLog;
+import com.example.demo.jwt.JwtConfig;
+import com.example.demo.jwt.JwtTokenAuthenticator;
+import com.example.demo.jwt.JwtTokenIssuer;
+import com.example.demo.jwt.RefreshTokenStore;
+import com.example.demo.security.ApplicationSecurityConfig;
+import com.example.demo.security.LoginThrottle;
+import com.example.demo.security.SecurityMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.config.annotation.method.configuration.EnableReactiveMethodSecurity;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.authentication.HttpStatusServerEntryPoint;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+import org.springframework.security.web.server.savedrequest.NoOpServerRequestCache;
+
+import static com.example.demo.security.ApplicationUserRole.*;
+
+// ApplicationSecurityConfig for the reactive profile: the same stateless JWT login, bearer token verification
+// and URL rules, with the @PreAuthorize rules enforced on the reactive controllers
+@Configuration
+@EnableWebFluxSecurity
+@EnableReactiveMethodSecurity
+@Profile("reactive")
+public class ReactiveSecurityConfig {
+
+    private final ReactiveLoginAuthenticationManager authenticationManager;
+    private final JwtConfig jwtConfig;
+    private final JwtTokenAuthenticator jwtTokenAuthenticator;
+    private final SecurityMetrics securityMetrics;
+    private final JwtTokenIssuer jwtTokenIssuer;
+    private final RefreshTokenStore refreshTokenStore;
+    private final LoginThrottle loginThrottle;
+    private final AuditLog auditLog;
+
+    @Autowired
+    public ReactiveSecurityConfig(ReactiveLoginAuthenticationManager authenticationManager,
+                                  JwtConfig jwtConfig,
+                                  JwtTokenAuthenticator jwtTokenAuthenticator,
+                                  SecurityMetrics securityMetrics,
+                                  JwtTokenIssuer jwtTokenIssuer,
+                                  RefreshTokenStore refreshTokenStore,
+                                  LoginThrottle loginThrottle,
+                                  AuditLog auditLog) {
+        this.authenticationManager = authenticationManager;
+        this.jwtConfig = jwtConfig;
+        this.jwtTokenAuthenticator = jwtTokenAuthenticator;
+        this.securityMetrics = securityMetrics;
+        this.jwtTokenIssuer = jwtTokenIssuer;
+        this.refreshTokenStore = refreshTokenStore;
+        this.loginThrottle = loginThrottle;
+        this.auditLog = auditLog;
+    }
+
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http) {
+        return http
+                .csrf().disable()
+                .httpBasic().disable()
+                .formLogin().disable()
+                .logout().disable()
+                .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+                .requestCache()
+                    .requestCache(NoOpServerRequestCache.getInstance())
+                .and()
+                // The servlet chain answers an anonymous request with Http403ForbiddenEntryPoint
+                .exceptionHandling()
+                    .authenticationEntryPoint(new HttpStatusServerEntryPoint(HttpStatus.FORBIDDEN))
+                .and()
+                .addFilterAt(loginWebFilter(), SecurityWebFiltersOrder.FORM_LOGIN)
+                .addFilterAt(new JwtTokenWebFilter(jwtConfig, jwtTokenAuthenticator), SecurityWebFiltersOrder.AUTHENTICATION)
+                .authorizeExchange()
+                .pathMatchers(ApplicationSecurityConfig.PUBLIC_ASSET_PATTERNS).permitAll()
+                .pathMatchers("/api/**").hasRole(STUDENT.name())
+                .pathMatchers("/actuator/health").permitAll()
+                .pathMatchers("/actuator/**").hasRole(ADMIN.name())
+                .anyExchange()
+                .authenticated()
+                .and()
+                .build();
+    }
+
+    private LoginWebFilter loginWebFilter() {
+        return new LoginWebFilter(
+                new LoginAuthenticationConverter(jwtConfig, securityMetrics, loginThrottle),
+                authenticationManager,
+                new LoginResponseHandler(jwtConfig, jwtTokenIssuer, refreshTokenStore, loginThrottle, auditLog)
+        );
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.demo.reactive;
+
+import com.example.demo.student.StudentRepository;
+import com.example.demo.student.StudentResponseCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+// Same ETags and cached bytes as StudentController, behind the same STUDENT rule on api/**
+@RestController
+@RequestMapping("api/v1/students")
+@Profile("reactive")
+public class ReactiveStudentController {
+
+    private final StudentRepository studentRepository;
+    private final StudentResponseCache studentResponseCache;
+
+    @Autowired
+    public ReactiveStudentController(StudentRepository studentRepository, StudentResponseCache studentResponseCache) {
+        this.studentRepository = studentRepository;
+        this.studentResponseCache = studentResponseCache;
+    }
+
+    @GetMapping(path = "{studentId}")
+    public Mono<ResponseEntity<byte[]>> getStudent(@PathVariable("studentId") Integer studentId, ServerWebExchange exchange) {
+        return Mono.defer(() -> Mono.justOrEmpty(studentRepository.selectStudentById(studentId)))
+                .switchIfEmpty(Mono.defer(() -> Mono.error(new IllegalStateException(
+                        "Student " + studentId + " does not exists"
+                ))))
+                .flatMap(student -> {
+                    String etag = studentResponseCache.etagOf(student);
+                    exchange.getResponse().getHeaders().setCacheControl(StudentResponseCache.CACHE_CONTROL);
+                    if (exchange.checkNotModified(etag)) {
+                        return Mono.empty();
+                    }
+                    return Mono.just(ResponseEntity.ok()
+                            .eTag(etag)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .body(studentResponseCache.serialize(student)));
+                });
+    }
+}
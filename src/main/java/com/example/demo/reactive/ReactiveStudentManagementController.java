@@ -0,0 +1,109 @@
+package com.example.demo.reactive;
+
+import com.example.demo.audit.AuditEventType;
+import com.example.demo.audit.AuditLog;
+import com.example.demo.student.Student;
+import com.example.demo.student.StudentConfig;
+import com.example.demo.student.StudentManagementController;
+import com.example.demo.student.StudentRepository;
+import com.example.demo.student.StudentResponseCache;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterators;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.security.Principal;
+import java.util.Iterator;
+import java.util.List;
+
+// Same rules as StudentManagementController. Reactive method security only runs a method once its rule
+// has passed, and only for methods returning a publisher, hence Mono<Void> rather than void.
+@RestController
+@RequestMapping("management/api/v1/students")
+@Profile("reactive")
+public class ReactiveStudentManagementController {
+
+    private final StudentRepository studentRepository;
+    private final StudentResponseCache studentResponseCache;
+    private final AuditLog auditLog;
+    private final int maximumPageSize;
+
+    @Autowired
+    public ReactiveStudentManagementController(StudentRepository studentRepository,
+                                               StudentResponseCache studentResponseCache,
+                                               AuditLog auditLog,
+                                               StudentConfig studentConfig) {
+        this.studentRepository = studentRepository;
+        this.studentResponseCache = studentResponseCache;
+        this.auditLog = auditLog;
+        this.maximumPageSize = studentConfig.getMaximumPageSize();
+    }
+
+    // Same keyset pagination and X-Next-Cursor header as StudentManagementController.getAllStudents
+    @GetMapping
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_ADMINTRAINEE')")
+    public Mono<ResponseEntity<List<Student>>> getAllStudents(@RequestParam(required = false) Integer after,
+                                                              @RequestParam(defaultValue = "0") int page,
+                                                              @RequestParam(defaultValue = "100") int size) {
+        return Mono.fromSupplier(() -> {
+            int pageSize = StudentManagementController.pageSize(page, size, maximumPageSize);
+            if (after == null && page > 0) {
+                return ResponseEntity.ok(studentRepository.selectStudents(page, pageSize));
+            }
+
+            Iterator<Student> students = studentRepository.iterateStudentsAfter(after == null ? 0 : after);
+            List<Student> result = ImmutableList.copyOf(Iterators.limit(students, pageSize));
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (!result.isEmpty() && students.hasNext()) {
+                response.header(StudentManagementController.NEXT_CURSOR_HEADER,
+                        result.get(result.size() - 1).getStudentId().toString());
+            }
+            return response.body(result);
+        });
+    }
+
+    @PostMapping
+    @PreAuthorize("hasAuthority('student:write')")
+    public Mono<Void> registerNewStudent(@RequestBody Student student, Principal principal, ServerHttpRequest request) {
+        return Mono.fromRunnable(() -> {
+            studentRepository.insertStudent(student);
+            record(AuditEventType.STUDENT_REGISTERED, principal, request, student.toString());
+        });
+    }
+
+    @DeleteMapping(path = "{studentId}")
+    @PreAuthorize("hasAuthority('student:write')")
+    public Mono<Void> deleteStudent(@PathVariable("studentId") Integer studentId, Principal principal, ServerHttpRequest request) {
+        return Mono.fromRunnable(() -> {
+            studentRepository.deleteStudentById(studentId);
+            studentResponseCache.invalidate(studentId);
+            record(AuditEventType.STUDENT_DELETED, principal, request, studentId.toString());
+        });
+    }
+
+    @PutMapping(path = "{studentId}")
+    @PreAuthorize("hasAuthority('student:write')")
+    public Mono<Void> updateStudent(@PathVariable("studentId") Integer studentId, @RequestBody Student student,
+                                    Principal principal, ServerHttpRequest request) {
+        return Mono.fromRunnable(() -> {
+            studentRepository.updateStudent(studentId, student);
+            studentResponseCache.invalidate(studentId);
+            record(AuditEventType.STUDENT_UPDATED, principal, request, studentId + " " + student);
+        });
+    }
+
+    // A missing name, an id out of range and the like are the caller's mistake, not the server's
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Void> rejectInvalidRequest() {
+        return ResponseEntity.badRequest().build();
+    }
+
+    private void record(AuditEventType type, Principal principal, ServerHttpRequest request, String detail) {
+        auditLog.record(type, principal.getName(), ReactiveRequests.remoteAddress(request), detail);
+    }
+}
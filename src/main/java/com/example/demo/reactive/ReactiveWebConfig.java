@@ -0,0 +1,32 @@
+package com.example.demo.reactive;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.Resource;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import static org.springframework.web.reactive.function.server.RequestPredicates.GET;
+
+@Configuration
+@Profile("reactive")
+public class ReactiveWebConfig {
+
+    // Tomcat is on the classpath for the servlet profile and would otherwise be picked for WebFlux too,
+    // Netty keeps every connection on a small fixed set of event loop threads
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    // WebFlux serves static/** as is but has no welcome page, "/" answers with index.html like the servlet stack
+    @Bean
+    public RouterFunction<ServerResponse> indexRouter(@Value("classpath:/static/index.html") Resource index) {
+        return RouterFunctions.route(GET("/"), request -> ServerResponse.ok().contentType(MediaType.TEXT_HTML).bodyValue(index));
+    }
+}
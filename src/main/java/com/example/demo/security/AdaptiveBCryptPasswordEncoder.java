@@ -0,0 +1,62 @@
+package com.example.demo.security;
+
+import com.google.common.base.Stopwatch;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public class AdaptiveBCryptPasswordEncoder extends BCryptPasswordEncoder {
+
+    private static final Pattern BCRYPT_STRENGTH = Pattern.compile("^\\$2[abyx]?\\$(\\d\\d)\\$");
+    private static final int CALIBRATION_ROUNDS = 3;
+
+    private final int strength;
+
+    public AdaptiveBCryptPasswordEncoder(int strength) {
+        super(strength);
+        this.strength = strength;
+    }
+
+    // Picks the highest strength in [minStrength, maxStrength] whose verify time stays within the target
+    public static AdaptiveBCryptPasswordEncoder calibrated(long targetVerifyMillis,
+                                                           int minStrength,
+                                                           int maxStrength) {
+        int strength = minStrength;
+        for (int candidate = minStrength; candidate <= maxStrength; candidate++) {
+            if (measureVerifyMillis(candidate) > targetVerifyMillis) {
+                break;
+            }
+            strength = candidate;
+        }
+        return new AdaptiveBCryptPasswordEncoder(strength);
+    }
+
+    public int getStrength() {
+        return strength;
+    }
+
+    // Unlike BCryptPasswordEncoder this also rehashes hashes that are stronger than configured,
+    // so a deployment can trade CPU per login down as well as up
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null) {
+            return false;
+        }
+        Matcher matcher = BCRYPT_STRENGTH.matcher(encodedPassword);
+        return matcher.find() && Integer.parseInt(matcher.group(1)) != strength;
+    }
+
+    private static long measureVerifyMillis(int strength) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+        String encoded = encoder.encode("calibration");
+        long fastest = Long.MAX_VALUE;
+        for (int round = 0; round < CALIBRATION_ROUNDS; round++) {
+            Stopwatch stopwatch = Stopwatch.createStarted();
+            encoder.matches("calibration", encoded);
+            fastest = Math.min(fastest, stopwatch.elapsed(TimeUnit.MILLISECONDS));
+        }
+        return fastest;
+    }
+}
@@ -1,45 +1,68 @@
 package com.example.demo.security;
 
+import com.example.demo.audit.AuditLog;
 import com.example.demo.auth.ApplicationUserService;
 import com.example.demo.jwt.JwtConfig;
+import com.example.demo.jwt.JwtTokenAuthenticator;
+import com.example.demo.jwt.JwtTokenIssuer;
 import com.example.demo.jwt.JwtTokenVerifier;
 import com.example.demo.jwt.JwtUsernameAndPasswordAuthenticationFilter;
+import com.example.demo.jwt.RefreshTokenStore;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
-import org.springframework.security.config.annotation.method.configuration.EnableGlobalMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.annotation.web.builders.WebSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configuration.WebSecurityConfigurerAdapter;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
-import javax.crypto.SecretKey;
-
 import static com.example.demo.security.ApplicationUserRole.*;
 
 
+// The servlet pipeline, ReactiveSecurityConfig applies the same rules when running on WebFlux
 @Configuration
 @EnableWebSecurity
-@EnableGlobalMethodSecurity(prePostEnabled = true)
+@Profile("!reactive")
 public class ApplicationSecurityConfig extends WebSecurityConfigurerAdapter {
 
+    // The only static files served without a login, by StaticAssetFilter as well as through this chain
+    public static final String[] PUBLIC_ASSET_PATTERNS = {"/", "/index.html", "/css/**", "/js/**"};
+
     private final PasswordEncoder passwordEncoder;
     private final ApplicationUserService applicationUserService;
-    private final SecretKey secretKey;
     private final JwtConfig jwtConfig;
+    private final JwtTokenAuthenticator jwtTokenAuthenticator;
+    private final SecurityMetrics securityMetrics;
+    private final JwtTokenIssuer jwtTokenIssuer;
+    private final RefreshTokenStore refreshTokenStore;
+    private final LoginThrottle loginThrottle;
+    private final AuditLog auditLog;
 
     @Autowired
     public ApplicationSecurityConfig(PasswordEncoder passwordEncoder,
                                      ApplicationUserService applicationUserService,
-                                     SecretKey secretKey,
-                                     JwtConfig jwtConfig) {
+                                     JwtConfig jwtConfig,
+                                     JwtTokenAuthenticator jwtTokenAuthenticator,
+                                     SecurityMetrics securityMetrics,
+                                     JwtTokenIssuer jwtTokenIssuer,
+                                     RefreshTokenStore refreshTokenStore,
+                                     LoginThrottle loginThrottle,
+                                     AuditLog auditLog) {
         this.passwordEncoder = passwordEncoder;
         this.applicationUserService = applicationUserService;
-        this.secretKey = secretKey;
         this.jwtConfig = jwtConfig;
+        this.jwtTokenAuthenticator = jwtTokenAuthenticator;
+        this.securityMetrics = securityMetrics;
+        this.jwtTokenIssuer = jwtTokenIssuer;
+        this.refreshTokenStore = refreshTokenStore;
+        this.loginThrottle = loginThrottle;
+        this.auditLog = auditLog;
     }
 
     @Override
@@ -49,15 +72,24 @@ public class ApplicationSecurityConfig extends WebSecurityConfigurerAdapter {
                 .sessionManagement()
                     .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
                 .and()
-                .addFilter(new JwtUsernameAndPasswordAuthenticationFilter(authenticationManager(), jwtConfig, secretKey))
-                .addFilterAfter(new JwtTokenVerifier(secretKey, jwtConfig),JwtUsernameAndPasswordAuthenticationFilter.class)
+                .addFilter(new JwtUsernameAndPasswordAuthenticationFilter(authenticationManager(), jwtConfig, securityMetrics, jwtTokenIssuer, refreshTokenStore, loginThrottle, auditLog))
+                .addFilterAfter(new JwtTokenVerifier(jwtConfig, jwtTokenAuthenticator),JwtUsernameAndPasswordAuthenticationFilter.class)
                 .authorizeRequests()
-                .antMatchers("/", "index", "/css/*", "/js/*").permitAll()
+                .antMatchers(HttpMethod.POST, "/tokens/refresh").permitAll()
                 .antMatchers("/api/**").hasRole(STUDENT.name())
+                .antMatchers("/actuator/health").permitAll()
+                .antMatchers("/actuator/**").hasRole(ADMIN.name())
                 .anyRequest()
                 .authenticated();
     }
 
+    // Public assets skip the security filter chain altogether. StaticAssetFilter normally answers them
+    // before the chain is reached; this covers files too large for it to keep in memory.
+    @Override
+    public void configure(WebSecurity web) {
+        web.ignoring().antMatchers(PUBLIC_ASSET_PATTERNS);
+    }
+
     @Override
     protected void configure(AuthenticationManagerBuilder auth) throws Exception {
         auth.authenticationProvider(daoAuthenticationProvider());
@@ -68,6 +100,7 @@ public class ApplicationSecurityConfig extends WebSecurityConfigurerAdapter {
         DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
         provider.setPasswordEncoder(passwordEncoder);
         provider.setUserDetailsService(applicationUserService);
+        provider.setUserDetailsPasswordService(applicationUserService);
         return provider;
     }
 
@@ -1,18 +1,33 @@
 package com.example.demo.security;
 
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+// The mask bit is what a compact token carries for the permission, it must never change or be reused
 public enum ApplicationUserPermission {
-    STUDENT_READ("student:read"),
-    STUDENT_WRITE("student:write"),
-    COURSE_READ("course:read"),
-    COURSE_WRITE("course:write");
+    STUDENT_READ("student:read", 0),
+    STUDENT_WRITE("student:write", 1),
+    COURSE_READ("course:read", 2),
+    COURSE_WRITE("course:write", 3);
 
     private final String permission;
+    private final int maskBit;
+    private final SimpleGrantedAuthority grantedAuthority;
 
-    ApplicationUserPermission(String permission) {
+    ApplicationUserPermission(String permission, int maskBit) {
         this.permission = permission;
+        this.maskBit = maskBit;
+        this.grantedAuthority = new SimpleGrantedAuthority(permission);
     }
 
     public String getPermission() {
         return permission;
     }
+
+    public int getMaskBit() {
+        return maskBit;
+    }
+
+    public SimpleGrantedAuthority getGrantedAuthority() {
+        return grantedAuthority;
+    }
 }
@@ -1,34 +1,54 @@
 package com.example.demo.security;
 
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Sets;
-import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 
+import java.util.Arrays;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 import static com.example.demo.security.ApplicationUserPermission.*;
 
+// Mask bits are shared with ApplicationUserPermission and just as fixed, see GrantedAuthorities
 public enum ApplicationUserRole {
-    STUDENT(Sets.newHashSet()),
-    ADMIN(Sets.newHashSet(COURSE_READ, COURSE_WRITE, STUDENT_READ, STUDENT_WRITE)),
-    ADMINTRAINEE(Sets.newHashSet(COURSE_READ, STUDENT_READ));
+    STUDENT(4),
+    ADMIN(5, COURSE_READ, COURSE_WRITE, STUDENT_READ, STUDENT_WRITE),
+    ADMINTRAINEE(6, COURSE_READ, STUDENT_READ);
 
+    private final int maskBit;
     private final Set<ApplicationUserPermission> permissions;
-
-    ApplicationUserRole(Set<ApplicationUserPermission> permissions) {
-        this.permissions = permissions;
+    private final SimpleGrantedAuthority grantedAuthority;
+    private final Set<SimpleGrantedAuthority> grantedAuthorities;
+
+    ApplicationUserRole(int maskBit, ApplicationUserPermission... permissions) {
+        this.maskBit = maskBit;
+        this.permissions = Sets.immutableEnumSet(Arrays.asList(permissions));
+        this.grantedAuthority = new SimpleGrantedAuthority("ROLE_" + name());
+
+        ImmutableSet.Builder<SimpleGrantedAuthority> grantedAuthorities = ImmutableSet.builder();
+        for (ApplicationUserPermission permission : this.permissions) {
+            grantedAuthorities.add(permission.getGrantedAuthority());
+        }
+        this.grantedAuthorities = grantedAuthorities.add(grantedAuthority).build();
     }
 
     public Set<ApplicationUserPermission> getPermissions() {
         return permissions;
     }
 
+    public boolean hasPermission(ApplicationUserPermission permission) {
+        return permissions.contains(permission);
+    }
+
+    public int getMaskBit() {
+        return maskBit;
+    }
+
+    public SimpleGrantedAuthority getGrantedAuthority() {
+        return grantedAuthority;
+    }
+
     public Set<SimpleGrantedAuthority> getGrantedAuthorities() {
-        Set<SimpleGrantedAuthority> permissions = getPermissions().stream()
-                .map(permission -> new SimpleGrantedAuthority(permission.getPermission()))
-                .collect(Collectors.toSet());
-        permissions.add(new SimpleGrantedAuthority("ROLE_" + this.name()));
-        return permissions;
+        return grantedAuthorities;
     }
 }
@@ -0,0 +1,102 @@
+package com.example.demo.security;
+
+import com.google.common.base.Throwables;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor verifierExecutor;
+    private final SecurityMetrics securityMetrics;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate,
+                                  int verifierThreads,
+                                  int verifierQueueCapacity,
+                                  MeterRegistry meterRegistry,
+                                  SecurityMetrics securityMetrics) {
+        this.delegate = delegate;
+        this.securityMetrics = securityMetrics;
+        // Hashing is pure CPU work, more threads than cores only adds contention
+        this.verifierExecutor = new ThreadPoolExecutor(
+                verifierThreads,
+                verifierThreads,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(verifierQueueCapacity),
+                new ThreadFactoryBuilder().setNameFormat("password-verifier-%d").setDaemon(true).build(),
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+        Gauge.builder("security.password.queue", verifierExecutor, executor -> executor.getQueue().size())
+                .description("Password verifications waiting for a verifier thread")
+                .register(meterRegistry);
+        Gauge.builder("security.password.active", verifierExecutor, ThreadPoolExecutor::getActiveCount)
+                .description("Password verifications currently running")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return delegate.encode(rawPassword);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        Future<Boolean> verification;
+        try {
+            verification = verifierExecutor.submit(() -> verify(rawPassword, encodedPassword));
+        } catch (RejectedExecutionException e) {
+            throw new PasswordVerificationRejectedException("Password verification capacity exceeded");
+        }
+
+        try {
+            return verification.get();
+        } catch (InterruptedException e) {
+            verification.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new AuthenticationServiceException("Interrupted while verifying password", e);
+        } catch (ExecutionException e) {
+            Throwables.throwIfUnchecked(e.getCause());
+            throw new AuthenticationServiceException("Password verification failed", e.getCause());
+        }
+    }
+
+    // For callers that must not block, the reactive login. The verifier pool is the bound: a full queue
+    // fails the future straight away, exactly like matches, and no event loop thread ever waits on a hash.
+    public CompletableFuture<Boolean> matchesAsync(CharSequence rawPassword, String encodedPassword) {
+        try {
+            return CompletableFuture.supplyAsync(() -> verify(rawPassword, encodedPassword), verifierExecutor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(
+                    new PasswordVerificationRejectedException("Password verification capacity exceeded"));
+        }
+    }
+
+    private boolean verify(CharSequence rawPassword, String encodedPassword) {
+        long start = SecurityMetrics.start();
+        boolean matches = delegate.matches(rawPassword, encodedPassword);
+        securityMetrics.record(SecurityMetrics.Stage.PASSWORD_VERIFY,
+                matches ? SecurityMetrics.Outcome.SUCCESS : SecurityMetrics.Outcome.BAD_CREDENTIALS, start);
+        return matches;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    public void shutdown() {
+        verifierExecutor.shutdown();
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.demo.security;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+public final class GrantedAuthorities {
+
+    // Bit i of an authority mask stands for MASK_AUTHORITIES[i], the authority whose permission or role
+    // declares that bit. Issued tokens rely on the bits, so they are fixed per constant and checked by
+    // checkMaskBits when this class is initialized; GrantedAuthoritiesTest runs the same check.
+    private static final int MAX_MASK_BIT = 30;
+    private static final GrantedAuthority[] MASK_AUTHORITIES = checkMaskBits();
+    private static final int KNOWN_BITS = knownBits();
+
+    // One shared instance per known authority string, so token verification never re-allocates them
+    private static final Map<String, GrantedAuthority> KNOWN_AUTHORITIES = knownAuthorities();
+    private static final Map<String, Integer> AUTHORITY_BITS = authorityBits();
+    private static final ConcurrentMap<Integer, Set<? extends GrantedAuthority>> AUTHORITIES_BY_MASK = new ConcurrentHashMap<>();
+
+    private GrantedAuthorities() {
+    }
+
+    public static GrantedAuthority of(String authority) {
+        GrantedAuthority grantedAuthority = KNOWN_AUTHORITIES.get(authority);
+        return grantedAuthority != null ? grantedAuthority : new SimpleGrantedAuthority(authority);
+    }
+
+    // Returns null when an authority has no bit, callers then have to fall back to the verbose form
+    public static Integer toMask(Collection<? extends GrantedAuthority> grantedAuthorities) {
+        int mask = 0;
+        for (GrantedAuthority grantedAuthority : grantedAuthorities) {
+            Integer bit = AUTHORITY_BITS.get(grantedAuthority.getAuthority());
+            if (bit == null) {
+                return null;
+            }
+            mask |= 1 << bit;
+        }
+        return mask;
+    }
+
+    public static Set<? extends GrantedAuthority> fromMask(int mask) {
+        if ((mask & ~KNOWN_BITS) != 0) {
+            throw new IllegalArgumentException("Unknown authority bits in mask " + mask);
+        }
+        return AUTHORITIES_BY_MASK.computeIfAbsent(mask, GrantedAuthorities::decode);
+    }
+
+    private static Set<? extends GrantedAuthority> decode(int mask) {
+        // Tokens minted for a plain role get the very set the role hands out
+        for (ApplicationUserRole role : ApplicationUserRole.values()) {
+            if (mask == toMask(role.getGrantedAuthorities())) {
+                return role.getGrantedAuthorities();
+            }
+        }
+
+        ImmutableSet.Builder<GrantedAuthority> grantedAuthorities = ImmutableSet.builder();
+        for (int bit = 0; bit <= MAX_MASK_BIT; bit++) {
+            if ((mask & (1 << bit)) != 0) {
+                grantedAuthorities.add(MASK_AUTHORITIES[bit]);
+            }
+        }
+        return grantedAuthorities.build();
+    }
+
+    // Every bit in [0, 30] so a mask stays a positive int, and no two authorities on the same bit
+    static GrantedAuthority[] checkMaskBits() {
+        GrantedAuthority[] maskAuthorities = new GrantedAuthority[MAX_MASK_BIT + 1];
+        for (ApplicationUserPermission permission : ApplicationUserPermission.values()) {
+            assignBit(maskAuthorities, permission.getMaskBit(), permission.getGrantedAuthority());
+        }
+        for (ApplicationUserRole role : ApplicationUserRole.values()) {
+            assignBit(maskAuthorities, role.getMaskBit(), role.getGrantedAuthority());
+        }
+        return maskAuthorities;
+    }
+
+    static void assignBit(GrantedAuthority[] maskAuthorities, int bit, GrantedAuthority grantedAuthority) {
+        if (bit < 0 || bit > MAX_MASK_BIT) {
+            throw new IllegalStateException("Mask bit of " + grantedAuthority + " must be between 0 and " + MAX_MASK_BIT + " but was " + bit);
+        }
+        if (maskAuthorities[bit] != null) {
+            throw new IllegalStateException("Mask bit " + bit + " is used by both " + maskAuthorities[bit] + " and " + grantedAuthority);
+        }
+        maskAuthorities[bit] = grantedAuthority;
+    }
+
+    private static int knownBits() {
+        int knownBits = 0;
+        for (int bit = 0; bit <= MAX_MASK_BIT; bit++) {
+            if (MASK_AUTHORITIES[bit] != null) {
+                knownBits |= 1 << bit;
+            }
+        }
+        return knownBits;
+    }
+
+    private static Map<String, GrantedAuthority> knownAuthorities() {
+        ImmutableMap.Builder<String, GrantedAuthority> builder = ImmutableMap.builder();
+        for (GrantedAuthority grantedAuthority : MASK_AUTHORITIES) {
+            if (grantedAuthority != null) {
+                builder.put(grantedAuthority.getAuthority(), grantedAuthority);
+            }
+        }
+        return builder.build();
+    }
+
+    private static Map<String, Integer> authorityBits() {
+        ImmutableMap.Builder<String, Integer> builder = ImmutableMap.builder();
+        for (int bit = 0; bit <= MAX_MASK_BIT; bit++) {
+            if (MASK_AUTHORITIES[bit] != null) {
+                builder.put(MASK_AUTHORITIES[bit].getAuthority(), bit);
+            }
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.demo.security;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Keeps password guessing from costing a BCrypt verify per attempt. Two families of GCRA token buckets:
+//   per remote address   every login attempt takes a token, checked before the body is even read
+//   per username         only failed logins take a token, once they run out the account reports itself
+//                        locked and logins for it are turned away before the password is hashed
+// A bucket is a single AtomicLong holding its theoretical arrival time, taking a token is one CAS.
+// Buckets live in size bounded caches and are dropped once idle long enough to have refilled completely,
+// so forgetting one never lets anyone through sooner than waiting would have.
+// The address is whatever the container reports: behind a reverse proxy that is the proxy itself unless
+// server.forward-headers-strategy is set, and then one client can lock out everyone behind the same proxy.
+@Component
+public class LoginThrottle {
+
+    private final boolean enabled;
+    private final Limit addressLimit;
+    private final Limit usernameLimit;
+    private final Cache<String, AtomicLong> addressBuckets;
+    private final Cache<String, AtomicLong> usernameBuckets;
+    private final Counter throttledAddresses;
+    private final Counter throttledUsernames;
+
+    @Autowired
+    public LoginThrottle(LoginThrottleConfig loginThrottleConfig, MeterRegistry meterRegistry) {
+        this.enabled = Boolean.TRUE.equals(loginThrottleConfig.getEnabled());
+        this.addressLimit = new Limit(loginThrottleConfig.getAddressAttempts(), loginThrottleConfig.getAddressPeriodSeconds());
+        this.usernameLimit = new Limit(loginThrottleConfig.getUsernameFailures(), loginThrottleConfig.getUsernamePeriodSeconds());
+        this.addressBuckets = buckets(addressLimit, loginThrottleConfig.getMaximumKeys());
+        this.usernameBuckets = buckets(usernameLimit, loginThrottleConfig.getMaximumKeys());
+
+        this.throttledAddresses = Counter.builder("security.login.throttled")
+                .description("Login attempts turned away before the password was hashed")
+                .tag("key", "address")
+                .register(meterRegistry);
+        this.throttledUsernames = Counter.builder("security.login.throttled")
+                .description("Login attempts turned away before the password was hashed")
+                .tag("key", "username")
+                .register(meterRegistry);
+        Gauge.builder("security.login.throttle.keys", addressBuckets, Cache::size)
+                .description("Remote addresses and usernames with a login bucket")
+                .tag("key", "address")
+                .register(meterRegistry);
+        Gauge.builder("security.login.throttle.keys", usernameBuckets, Cache::size)
+                .description("Remote addresses and usernames with a login bucket")
+                .tag("key", "username")
+                .register(meterRegistry);
+    }
+
+    // Takes a token for every attempt from the address, successful or not
+    public void acquireAddress(String remoteAddress) {
+        if (!enabled) {
+            return;
+        }
+        AtomicLong bucket = addressBuckets.asMap().computeIfAbsent(remoteAddress, key -> new AtomicLong(Long.MIN_VALUE));
+        long waitNanos = addressLimit.acquire(bucket, System.nanoTime());
+        if (waitNanos > 0) {
+            throttledAddresses.increment();
+            throw new LoginThrottledException("Too many login attempts from " + remoteAddress, toRetryAfterSeconds(waitNanos));
+        }
+    }
+
+    // Checked before the user is even looked up, unknown usernames lock exactly like real ones
+    public void checkUsername(String username) {
+        long waitNanos = usernameLockedForNanos(username);
+        if (waitNanos > 0) {
+            throttledUsernames.increment();
+            throw new LoginThrottledException("Too many failed logins for " + username, toRetryAfterSeconds(waitNanos));
+        }
+    }
+
+    public boolean isUsernameLocked(String username) {
+        return usernameLockedForNanos(username) > 0;
+    }
+
+    public void recordFailure(String username) {
+        if (!enabled) {
+            return;
+        }
+        AtomicLong bucket = usernameBuckets.asMap().computeIfAbsent(username, key -> new AtomicLong(Long.MIN_VALUE));
+        usernameLimit.acquire(bucket, System.nanoTime());
+    }
+
+    // The right password wipes the failures, a user who mistyped a few times starts over
+    public void recordSuccess(String username) {
+        if (!enabled) {
+            return;
+        }
+        usernameBuckets.invalidate(username);
+    }
+
+    private long usernameLockedForNanos(String username) {
+        if (!enabled) {
+            return 0;
+        }
+        AtomicLong bucket = usernameBuckets.getIfPresent(username);
+        return bucket == null ? 0 : usernameLimit.waitNanos(bucket.get(), System.nanoTime());
+    }
+
+    private static Cache<String, AtomicLong> buckets(Limit limit, long maximumKeys) {
+        return CacheBuilder.newBuilder()
+                .maximumSize(maximumKeys)
+                .expireAfterAccess(limit.burstNanos, TimeUnit.NANOSECONDS)
+                .build();
+    }
+
+    private static long toRetryAfterSeconds(long waitNanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+    }
+
+    // Generic cell rate algorithm: a token is freed every emission interval and up to capacity of them
+    // may be taken at once, which is a token bucket without a separate counter and refill timestamp
+    static class Limit {
+
+        private final long emissionNanos;
+        private final long burstNanos;
+
+        Limit(int capacity, long periodSeconds) {
+            this.emissionNanos = TimeUnit.SECONDS.toNanos(periodSeconds) / capacity;
+            this.burstNanos = emissionNanos * capacity;
+        }
+
+        // Zero when a token was taken, otherwise how long until the next one is free
+        long acquire(AtomicLong bucket, long now) {
+            while (true) {
+                long arrival = bucket.get();
+                long waitNanos = waitNanos(arrival, now);
+                if (waitNanos > 0) {
+                    return waitNanos;
+                }
+                if (bucket.compareAndSet(arrival, Math.max(arrival, now) + emissionNanos)) {
+                    return 0;
+                }
+            }
+        }
+
+        long waitNanos(long arrival, long now) {
+            return Math.max(arrival, now) + emissionNanos - burstNanos - now;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.demo.security;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "application.throttle")
+public class LoginThrottleConfig {
+
+    private Boolean enabled;
+    private Integer addressAttempts;
+    private Long addressPeriodSeconds;
+    private Integer usernameFailures;
+    private Long usernamePeriodSeconds;
+    private Long maximumKeys;
+
+    public LoginThrottleConfig() {
+    }
+
+    public Boolean getEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(Boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Integer getAddressAttempts() {
+        return addressAttempts;
+    }
+
+    public void setAddressAttempts(Integer addressAttempts) {
+        this.addressAttempts = addressAttempts;
+    }
+
+    public Long getAddressPeriodSeconds() {
+        return addressPeriodSeconds;
+    }
+
+    public void setAddressPeriodSeconds(Long addressPeriodSeconds) {
+        this.addressPeriodSeconds = addressPeriodSeconds;
+    }
+
+    public Integer getUsernameFailures() {
+        return usernameFailures;
+    }
+
+    public void setUsernameFailures(Integer usernameFailures) {
+        this.usernameFailures = usernameFailures;
+    }
+
+    public Long getUsernamePeriodSeconds() {
+        return usernamePeriodSeconds;
+    }
+
+    public void setUsernamePeriodSeconds(Long usernamePeriodSeconds) {
+        this.usernamePeriodSeconds = usernamePeriodSeconds;
+    }
+
+    public Long getMaximumKeys() {
+        return maximumKeys;
+    }
+
+    public void setMaximumKeys(Long maximumKeys) {
+        this.maximumKeys = maximumKeys;
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.demo.security;
+
+import org.springframework.security.authentication.AuthenticationServiceException;
+
+public class LoginThrottledException extends AuthenticationServiceException {
+
+    private final long retryAfterSeconds;
+
+    public LoginThrottledException(String msg, long retryAfterSeconds) {
+        super(msg);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    // Thrown for every request of a flood, the stack trace would cost more than the check that threw it
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.demo.security;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.access.AccessDecisionManager;
+import org.springframework.security.access.AccessDecisionVoter;
+import org.springframework.security.access.vote.AffirmativeBased;
+import org.springframework.security.config.annotation.method.configuration.EnableGlobalMethodSecurity;
+import org.springframework.security.config.annotation.method.configuration.GlobalMethodSecurityConfiguration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+@EnableGlobalMethodSecurity(prePostEnabled = true)
+@Profile("!reactive")
+public class MethodSecurityConfig extends GlobalMethodSecurityConfiguration {
+
+    // The fast-path voter goes first: AffirmativeBased stops at the first grant, so SpEL only runs
+    // for rules the voter cannot compile and for callers it turns away
+    @Override
+    protected AccessDecisionManager accessDecisionManager() {
+        AffirmativeBased defaultAccessDecisionManager = (AffirmativeBased) super.accessDecisionManager();
+
+        List<AccessDecisionVoter<?>> decisionVoters = new ArrayList<>();
+        decisionVoters.add(new PreAuthorizeFastPathVoter());
+        decisionVoters.addAll(defaultAccessDecisionManager.getDecisionVoters());
+        return new AffirmativeBased(decisionVoters);
+    }
+}
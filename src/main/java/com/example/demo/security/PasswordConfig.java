@@ -1,15 +1,64 @@
 package com.example.demo.security;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+
+import java.util.Collections;
+
+import static com.example.demo.security.PasswordVerifierConfig.EncoderMode.ADAPTIVE;
 
 @Configuration
 public class PasswordConfig {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(PasswordConfig.class);
+    private static final String BCRYPT_ID = "bcrypt";
+
+    private final PasswordVerifierConfig passwordVerifierConfig;
+
+    @Autowired
+    public PasswordConfig(PasswordVerifierConfig passwordVerifierConfig) {
+        this.passwordVerifierConfig = passwordVerifierConfig;
+    }
+
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder(10);
+    public BoundedPasswordEncoder passwordEncoder(MeterRegistry meterRegistry, SecurityMetrics securityMetrics) {
+        Integer verifierThreads = passwordVerifierConfig.getVerifierThreads();
+        return new BoundedPasswordEncoder(
+                delegatingPasswordEncoder(bcryptPasswordEncoder()),
+                verifierThreads == null ? Runtime.getRuntime().availableProcessors() : verifierThreads,
+                passwordVerifierConfig.getVerifierQueueCapacity(),
+                meterRegistry,
+                securityMetrics
+        );
+    }
+
+    // New hashes are stored as {bcrypt}<hash>. upgradeEncoding is true for a hash without that id, which
+    // is then still matched by BCrypt, and for a {bcrypt} hash whose cost is not the calibrated one.
+    static DelegatingPasswordEncoder delegatingPasswordEncoder(AdaptiveBCryptPasswordEncoder bcryptPasswordEncoder) {
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder(
+                BCRYPT_ID,
+                Collections.singletonMap(BCRYPT_ID, bcryptPasswordEncoder)
+        );
+        encoder.setDefaultPasswordEncoderForMatches(bcryptPasswordEncoder);
+        return encoder;
+    }
+
+    private AdaptiveBCryptPasswordEncoder bcryptPasswordEncoder() {
+        if (passwordVerifierConfig.getEncoderMode() != ADAPTIVE) {
+            return new AdaptiveBCryptPasswordEncoder(passwordVerifierConfig.getStrength());
+        }
+        AdaptiveBCryptPasswordEncoder encoder = AdaptiveBCryptPasswordEncoder.calibrated(
+                passwordVerifierConfig.getTargetVerifyMillis(),
+                passwordVerifierConfig.getMinStrength(),
+                passwordVerifierConfig.getMaxStrength()
+        );
+        LOGGER.info("Calibrated BCrypt strength {} for a {} ms verify target",
+                encoder.getStrength(), passwordVerifierConfig.getTargetVerifyMillis());
+        return encoder;
     }
 }
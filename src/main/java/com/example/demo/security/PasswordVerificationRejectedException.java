@@ -0,0 +1,10 @@
+package com.example.demo.security;
+
+import org.springframework.security.authentication.AuthenticationServiceException;
+
+public class PasswordVerificationRejectedException extends AuthenticationServiceException {
+
+    public PasswordVerificationRejectedException(String msg) {
+        super(msg);
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.demo.security;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "application.password")
+public class PasswordVerifierConfig {
+
+    private Integer verifierThreads;
+    private Integer verifierQueueCapacity;
+    private EncoderMode encoderMode;
+    private Integer strength;
+    private Long targetVerifyMillis;
+    private Integer minStrength;
+    private Integer maxStrength;
+
+    public PasswordVerifierConfig() {
+    }
+
+    public Integer getVerifierThreads() {
+        return verifierThreads;
+    }
+
+    public void setVerifierThreads(Integer verifierThreads) {
+        this.verifierThreads = verifierThreads;
+    }
+
+    public Integer getVerifierQueueCapacity() {
+        return verifierQueueCapacity;
+    }
+
+    public void setVerifierQueueCapacity(Integer verifierQueueCapacity) {
+        this.verifierQueueCapacity = verifierQueueCapacity;
+    }
+
+    public EncoderMode getEncoderMode() {
+        return encoderMode;
+    }
+
+    public void setEncoderMode(EncoderMode encoderMode) {
+        this.encoderMode = encoderMode;
+    }
+
+    public Integer getStrength() {
+        return strength;
+    }
+
+    public void setStrength(Integer strength) {
+        this.strength = strength;
+    }
+
+    public Long getTargetVerifyMillis() {
+        return targetVerifyMillis;
+    }
+
+    public void setTargetVerifyMillis(Long targetVerifyMillis) {
+        this.targetVerifyMillis = targetVerifyMillis;
+    }
+
+    public Integer getMinStrength() {
+        return minStrength;
+    }
+
+    public void setMinStrength(Integer minStrength) {
+        this.minStrength = minStrength;
+    }
+
+    public Integer getMaxStrength() {
+        return maxStrength;
+    }
+
+    public void setMaxStrength(Integer maxStrength) {
+        this.maxStrength = maxStrength;
+    }
+
+    public enum EncoderMode {
+        FIXED,
+        ADAPTIVE
+    }
+}
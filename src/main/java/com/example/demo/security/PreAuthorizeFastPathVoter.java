@@ -0,0 +1,129 @@
+package com.example.demo.security;
+
+import com.google.common.collect.ImmutableSet;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.security.access.AccessDecisionVoter;
+import org.springframework.security.access.ConfigAttribute;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.access.prepost.PreFilter;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Resolves simple @PreAuthorize rules - hasRole, hasAnyRole, hasAuthority, hasAnyAuthority -
+// into a set of accepted authority strings once per method, so a call is a set membership check
+public class PreAuthorizeFastPathVoter implements AccessDecisionVoter<MethodInvocation> {
+
+    private static final Pattern SIMPLE_RULE = Pattern.compile(
+            "^\\s*(hasRole|hasAnyRole|hasAuthority|hasAnyAuthority)\\(\\s*('[^']*'(?:\\s*,\\s*'[^']*')*)\\s*\\)\\s*$"
+    );
+    private static final Pattern QUOTED_ARGUMENT = Pattern.compile("'([^']*)'");
+    private static final String ROLE_PREFIX = "ROLE_";
+
+    // Keyed by the target class as well as the method: an interface method resolves to a different rule
+    // on every implementation, like AbstractFallbackMethodSecurityMetadataSource's cache
+    private final ConcurrentMap<RuleKey, Optional<Set<String>>> rules = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean supports(ConfigAttribute attribute) {
+        return true;
+    }
+
+    @Override
+    public boolean supports(Class<?> clazz) {
+        return MethodInvocation.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public int vote(Authentication authentication,
+                    MethodInvocation methodInvocation,
+                    Collection<ConfigAttribute> attributes) {
+        Object target = methodInvocation.getThis();
+        Optional<Set<String>> rule = rules.computeIfAbsent(
+                new RuleKey(methodInvocation.getMethod(), target == null ? null : AopUtils.getTargetClass(target)),
+                key -> compile(key.method, key.targetClass)
+        );
+        if (rule.isEmpty()) {
+            return ACCESS_ABSTAIN;
+        }
+
+        Set<String> acceptedAuthorities = rule.get();
+        for (GrantedAuthority grantedAuthority : authentication.getAuthorities()) {
+            if (acceptedAuthorities.contains(grantedAuthority.getAuthority())) {
+                return ACCESS_GRANTED;
+            }
+        }
+        return ACCESS_DENIED;
+    }
+
+    private static Optional<Set<String>> compile(Method method, Class<?> targetClass) {
+        Method specificMethod = targetClass == null ? method : AopUtils.getMostSpecificMethod(method, targetClass);
+
+        // @PreFilter is applied by the SpEL voter, granting here would skip it
+        if (AnnotationUtils.findAnnotation(specificMethod, PreFilter.class) != null) {
+            return Optional.empty();
+        }
+
+        PreAuthorize preAuthorize = AnnotationUtils.findAnnotation(specificMethod, PreAuthorize.class);
+        if (preAuthorize == null) {
+            return Optional.empty();
+        }
+        return compile(preAuthorize.value());
+    }
+
+    static Optional<Set<String>> compile(String expression) {
+        Matcher matcher = SIMPLE_RULE.matcher(expression);
+        if (!matcher.matches()) {
+            return Optional.empty();
+        }
+
+        boolean roles = matcher.group(1).endsWith("Role");
+        ImmutableSet.Builder<String> acceptedAuthorities = ImmutableSet.builder();
+        Matcher arguments = QUOTED_ARGUMENT.matcher(matcher.group(2));
+        while (arguments.find()) {
+            String authority = arguments.group(1);
+            // Same defaulting as SecurityExpressionRoot: a role keeps an explicit ROLE_ prefix
+            acceptedAuthorities.add(roles && !authority.startsWith(ROLE_PREFIX) ? ROLE_PREFIX + authority : authority);
+        }
+        return Optional.of(acceptedAuthorities.build());
+    }
+
+    private static final class RuleKey {
+
+        private final Method method;
+        private final Class<?> targetClass;
+
+        private RuleKey(Method method, Class<?> targetClass) {
+            this.method = method;
+            this.targetClass = targetClass;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof RuleKey)) {
+                return false;
+            }
+            RuleKey that = (RuleKey) other;
+            return method.equals(that.method) && targetClass == that.targetClass;
+        }
+
+        @Override
+        public int hashCode() {
+            return method.hashCode() * 31 + Objects.hashCode(targetClass);
+        }
+    }
+}
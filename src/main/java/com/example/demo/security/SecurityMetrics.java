@@ -0,0 +1,97 @@
+package com.example.demo.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.authentication.AccountStatusException;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.demo.security.SecurityMetrics.Outcome.*;
+
+@Component
+public class SecurityMetrics {
+
+    public enum Stage {
+        LOGIN_PARSE("security.login.parse", "Time spent reading the login request body",
+                SUCCESS, MALFORMED),
+        LOGIN_AUTHENTICATE("security.login.authenticate", "Time spent in the AuthenticationManager for a login",
+                SUCCESS, BAD_CREDENTIALS, DENIED, REJECTED, ERROR),
+        PASSWORD_VERIFY("security.password.verify", "Time spent hashing a presented password",
+                SUCCESS, BAD_CREDENTIALS),
+        JWT_SIGN("security.jwt.sign", "Time spent building and signing a token",
+                SUCCESS, ERROR),
+        JWT_VERIFY("security.jwt.verify", "Time spent turning a bearer token into an authentication",
+                SUCCESS, CACHED, EXPIRED, BAD_SIGNATURE, MALFORMED, REVOKED),
+        JWT_REFRESH("security.jwt.refresh", "Time spent rotating a refresh token into a new access token",
+                SUCCESS, BAD_CREDENTIALS, DENIED, EXPIRED, REVOKED, REUSED);
+
+        private final String meterName;
+        private final String description;
+        private final Outcome[] outcomes;
+
+        Stage(String meterName, String description, Outcome... outcomes) {
+            this.meterName = meterName;
+            this.description = description;
+            this.outcomes = outcomes;
+        }
+    }
+
+    public enum Outcome {
+        SUCCESS, CACHED, BAD_CREDENTIALS, DENIED, REJECTED, EXPIRED, BAD_SIGNATURE, MALFORMED, REVOKED, REUSED, ERROR;
+
+        private final String tag = name().toLowerCase(Locale.ROOT);
+
+        public String getTag() {
+            return tag;
+        }
+    }
+
+    // Every stage/outcome timer is registered up front, so recording is two array reads and no registry lookup
+    private final Timer[][] timers = new Timer[Stage.values().length][Outcome.values().length];
+
+    @Autowired
+    public SecurityMetrics(MeterRegistry meterRegistry) {
+        for (Stage stage : Stage.values()) {
+            for (Outcome outcome : stage.outcomes) {
+                timers[stage.ordinal()][outcome.ordinal()] = Timer.builder(stage.meterName)
+                        .description(stage.description)
+                        .tag("outcome", outcome.tag)
+                        .publishPercentileHistogram()
+                        .minimumExpectedValue(Duration.ofNanos(10_000))
+                        .maximumExpectedValue(Duration.ofSeconds(10))
+                        .register(meterRegistry);
+            }
+        }
+    }
+
+    public static long start() {
+        return System.nanoTime();
+    }
+
+    // The LOGIN_AUTHENTICATE outcome of a failed login, the same for the servlet and the reactive pipeline
+    public static Outcome loginOutcomeOf(Throwable failure) {
+        if (failure instanceof BadCredentialsException) {
+            return BAD_CREDENTIALS;
+        }
+        if (failure instanceof PasswordVerificationRejectedException) {
+            return REJECTED;
+        }
+        if (failure instanceof AccountStatusException) {
+            return DENIED;
+        }
+        return ERROR;
+    }
+
+    public void record(Stage stage, Outcome outcome, long startNanos) {
+        Timer timer = timers[stage.ordinal()][outcome.ordinal()];
+        if (timer == null) {
+            throw new IllegalArgumentException("Stage " + stage + " does not record outcome " + outcome);
+        }
+        timer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+}
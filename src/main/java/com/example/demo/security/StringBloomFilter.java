@@ -0,0 +1,54 @@
+package com.example.demo.security;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Bloom filter keyed off String.hashCode, which a String computes once and caches, so a lookup neither
+// allocates nor rehashes the key. Guava's BloomFilter allocates a Hasher per call. Puts are lock free
+// and may race with lookups; a lookup that overlaps a put may miss that one key.
+public final class StringBloomFilter {
+
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashCount;
+    private final int expectedInsertions;
+
+    public StringBloomFilter(int expectedInsertions, double falsePositiveRate) {
+        double optimalBits = -expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+        int words = (int) Math.max(1, Math.min(Integer.MAX_VALUE, ((long) Math.ceil(optimalBits) + 63) >>> 6));
+        this.bits = new AtomicLongArray(words);
+        this.bitCount = (long) words << 6;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+        this.expectedInsertions = expectedInsertions;
+    }
+
+    public void put(String key) {
+        long hash = mix(key.hashCode());
+        long step = Long.rotateLeft(hash, 32) | 1;
+        for (int i = 0; i < hashCount; i++, hash += step) {
+            long bit = Math.floorMod(hash, bitCount);
+            long mask = 1L << bit;
+            bits.accumulateAndGet((int) (bit >>> 6), mask, (word, set) -> word | set);
+        }
+    }
+
+    public boolean mightContain(String key) {
+        long hash = mix(key.hashCode());
+        long step = Long.rotateLeft(hash, 32) | 1;
+        for (int i = 0; i < hashCount; i++, hash += step) {
+            long bit = Math.floorMod(hash, bitCount);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int getExpectedInsertions() {
+        return expectedInsertions;
+    }
+
+    private static long mix(int hashCode) {
+        long hash = hashCode * 0x9E3779B97F4A7C15L;
+        return hash ^ (hash >>> 29);
+    }
+}
@@ -0,0 +1,257 @@
+package com.example.demo.storage;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.zip.CRC32;
+
+// Append-only key/value log on a memory mapped file. Every record is
+//   int length | int crc32 | byte type | short keyLength | key | value
+// where length and crc cover everything after the crc. The file is grown in zero filled steps,
+// so a zero length marks the end of the log.
+public class RecordLog implements Closeable {
+
+    private static final byte PUT = 1;
+    private static final byte DELETE = 2;
+    private static final int HEADER_BYTES = Integer.BYTES + Integer.BYTES;
+    private static final int RECORD_PREFIX_BYTES = Byte.BYTES + Short.BYTES;
+
+    private final Path file;
+    private final int growBytes;
+
+    // Offset of the latest PUT for every live key
+    private final Map<String, Integer> index = new HashMap<>();
+
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private int writePosition;
+    private long liveBytes;
+
+    public RecordLog(Path file, int growBytes) throws IOException {
+        this.file = file;
+        this.growBytes = growBytes;
+        map(Math.max(growBytes, Files.exists(file) ? Math.toIntExact(Files.size(file)) : 0));
+        recover();
+    }
+
+    public synchronized void forEach(BiConsumer<String, byte[]> consumer) {
+        for (Map.Entry<String, Integer> entry : index.entrySet()) {
+            consumer.accept(entry.getKey(), readValue(entry.getValue()));
+        }
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public synchronized int size() {
+        return index.size();
+    }
+
+    public synchronized void put(String key, byte[] value) {
+        int offset = append(PUT, key, value);
+        Integer previous = index.put(key, offset);
+        if (previous != null) {
+            liveBytes -= recordBytes(previous);
+        }
+        liveBytes += recordBytes(offset);
+    }
+
+    public synchronized void delete(String key) {
+        Integer previous = index.remove(key);
+        if (previous != null) {
+            append(DELETE, key, new byte[0]);
+            liveBytes -= recordBytes(previous);
+        }
+    }
+
+    public synchronized void force() {
+        buffer.force();
+    }
+
+    public synchronized long getLiveBytes() {
+        return liveBytes;
+    }
+
+    public synchronized long getLogBytes() {
+        return writePosition;
+    }
+
+    // Rewrites only the live records into a fresh file and swaps it in atomically. The old channel, mapping
+    // and index stay in use until the rename has succeeded, a failed compaction leaves the log as it was.
+    public synchronized void compact() throws IOException {
+        Path compacted = file.resolveSibling(file.getFileName() + ".compacting");
+        Files.deleteIfExists(compacted);
+
+        Map<String, Integer> compactedIndex = new HashMap<>();
+        int capacity = (int) Math.max(growBytes, liveBytes + growBytes);
+        FileChannel compactedChannel = FileChannel.open(compacted,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer target;
+        try {
+            target = compactedChannel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+            for (Map.Entry<String, Integer> entry : index.entrySet()) {
+                int offset = entry.getValue();
+                int length = recordBytes(offset);
+                compactedIndex.put(entry.getKey(), target.position());
+                target.put(buffer.duplicate().position(offset).limit(offset + length));
+            }
+            target.force();
+            // The open channel follows the file through the rename
+            Files.move(compacted, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException | RuntimeException e) {
+            compactedChannel.close();
+            Files.deleteIfExists(compacted);
+            throw e;
+        }
+
+        FileChannel previous = channel;
+        channel = compactedChannel;
+        buffer = target;
+        index.clear();
+        index.putAll(compactedIndex);
+        writePosition = (int) liveBytes;
+        previous.close();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        buffer.force();
+        channel.close();
+    }
+
+    private void recover() {
+        int position = 0;
+        boolean torn = false;
+        while (position + HEADER_BYTES <= buffer.capacity()) {
+            int length = buffer.getInt(position);
+            if (length == 0) {
+                break;
+            }
+            // Checked against the room left, position + HEADER_BYTES + length overflows for a garbage length
+            if (length < RECORD_PREFIX_BYTES
+                    || length > buffer.capacity() - position - HEADER_BYTES
+                    || buffer.getInt(position + Integer.BYTES) != crc(position + HEADER_BYTES, length)) {
+                torn = true;
+                break;
+            }
+            // Intact, but with a key that does not fit the record it cannot be read; the records after it can
+            if (keyLength(position) > length - RECORD_PREFIX_BYTES) {
+                position += HEADER_BYTES + length;
+                continue;
+            }
+
+            String key = readKey(position);
+            boolean put = buffer.get(position + HEADER_BYTES) == PUT;
+            Integer previous = put ? index.put(key, position) : index.remove(key);
+            if (previous != null) {
+                liveBytes -= recordBytes(previous);
+            }
+            if (put) {
+                liveBytes += HEADER_BYTES + length;
+            }
+            position += HEADER_BYTES + length;
+        }
+
+        // A crash mid-append leaves a partial record behind, wipe it so it cannot be misread later
+        if (torn) {
+            for (int i = position; i < buffer.capacity(); i++) {
+                buffer.put(i, (byte) 0);
+            }
+        }
+        writePosition = position;
+    }
+
+    private int append(byte type, String key, byte[] value) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        // The key length is stored in a short
+        if (keyBytes.length > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Record log keys are limited to " + Short.MAX_VALUE + " bytes but got " + keyBytes.length);
+        }
+        int length = RECORD_PREFIX_BYTES + keyBytes.length + value.length;
+        ensureCapacity(HEADER_BYTES + length);
+
+        int offset = writePosition;
+        ByteBuffer record = buffer.duplicate();
+        record.position(offset + HEADER_BYTES);
+        record.put(type).putShort((short) keyBytes.length).put(keyBytes).put(value);
+        // The crc goes in before the length, a record only becomes visible once its length is written
+        buffer.putInt(offset + Integer.BYTES, crc(offset + HEADER_BYTES, length));
+        buffer.putInt(offset, length);
+        writePosition += HEADER_BYTES + length;
+        return offset;
+    }
+
+    private void ensureCapacity(int recordBytes) {
+        // Keep room for a trailing zero length so recovery always finds the end of the log
+        long required = (long) writePosition + recordBytes + Integer.BYTES;
+        if (required <= buffer.capacity()) {
+            return;
+        }
+        if (required > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Record log " + file + " is full, it needs compaction");
+        }
+        long grown = Math.max(required, Math.min(Integer.MAX_VALUE, (long) buffer.capacity() * 2));
+        // The new mapping is made before the old channel is closed, a failure keeps the current one usable
+        try {
+            buffer.force();
+            FileChannel previous = channel;
+            map((int) grown);
+            previous.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void map(int capacity) throws IOException {
+        FileChannel mappedChannel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            buffer = mappedChannel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        } catch (IOException | RuntimeException e) {
+            mappedChannel.close();
+            throw e;
+        }
+        channel = mappedChannel;
+    }
+
+    private int recordBytes(int offset) {
+        return HEADER_BYTES + buffer.getInt(offset);
+    }
+
+    // Unsigned, so a key over Short.MAX_VALUE bytes from before put rejected them still reads back
+    private int keyLength(int offset) {
+        return Short.toUnsignedInt(buffer.getShort(offset + HEADER_BYTES + Byte.BYTES));
+    }
+
+    private String readKey(int offset) {
+        int keyLength = keyLength(offset);
+        byte[] key = new byte[keyLength];
+        buffer.duplicate().position(offset + HEADER_BYTES + RECORD_PREFIX_BYTES).get(key);
+        return new String(key, StandardCharsets.UTF_8);
+    }
+
+    private byte[] readValue(int offset) {
+        int keyLength = keyLength(offset);
+        int valueOffset = offset + HEADER_BYTES + RECORD_PREFIX_BYTES + keyLength;
+        byte[] value = new byte[offset + recordBytes(offset) - valueOffset];
+        buffer.duplicate().position(valueOffset).get(value);
+        return value;
+    }
+
+    private int crc(int offset, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.duplicate().position(offset).limit(offset + length));
+        return (int) crc.getValue();
+    }
+}
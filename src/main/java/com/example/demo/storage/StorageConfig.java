@@ -0,0 +1,47 @@
+package com.example.demo.storage;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "application.storage")
+public class StorageConfig {
+
+    private Boolean enabled;
+    private String directory;
+    private Integer growBytes;
+    private Double compactionGarbageRatio;
+
+    public StorageConfig() {
+    }
+
+    public Boolean getEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(Boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getDirectory() {
+        return directory;
+    }
+
+    public void setDirectory(String directory) {
+        this.directory = directory;
+    }
+
+    public Integer getGrowBytes() {
+        return growBytes;
+    }
+
+    public void setGrowBytes(Integer growBytes) {
+        this.growBytes = growBytes;
+    }
+
+    public Double getCompactionGarbageRatio() {
+        return compactionGarbageRatio;
+    }
+
+    public void setCompactionGarbageRatio(Double compactionGarbageRatio) {
+        this.compactionGarbageRatio = compactionGarbageRatio;
+    }
+}
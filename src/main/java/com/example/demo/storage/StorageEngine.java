@@ -0,0 +1,73 @@
+package com.example.demo.storage;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+@Component
+public class StorageEngine {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StorageEngine.class);
+
+    private final StorageConfig storageConfig;
+    private final List<RecordLog> recordLogs = new CopyOnWriteArrayList<>();
+
+    @Autowired
+    public StorageEngine(StorageConfig storageConfig) {
+        this.storageConfig = storageConfig;
+    }
+
+    // Empty when storage is disabled, callers then keep their data in memory only
+    public Optional<RecordLog> open(String name) {
+        if (!Boolean.TRUE.equals(storageConfig.getEnabled())) {
+            return Optional.empty();
+        }
+        try {
+            Path directory = Paths.get(storageConfig.getDirectory());
+            Files.createDirectories(directory);
+            RecordLog recordLog = new RecordLog(directory.resolve(name + ".log"), storageConfig.getGrowBytes());
+            recordLogs.add(recordLog);
+            return Optional.of(recordLog);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${application.storage.forceIntervalMillis}")
+    public void force() {
+        for (RecordLog recordLog : recordLogs) {
+            recordLog.force();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${application.storage.compactionIntervalMillis}")
+    public void compact() throws IOException {
+        for (RecordLog recordLog : recordLogs) {
+            long logBytes = recordLog.getLogBytes();
+            long garbageBytes = logBytes - recordLog.getLiveBytes();
+            if (logBytes > storageConfig.getGrowBytes() && garbageBytes > logBytes * storageConfig.getCompactionGarbageRatio()) {
+                recordLog.compact();
+                LOGGER.info("Compacted record log {} from {} to {} bytes", recordLog.getFile(), logBytes, recordLog.getLogBytes());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        for (RecordLog recordLog : recordLogs) {
+            recordLog.close();
+        }
+    }
+}
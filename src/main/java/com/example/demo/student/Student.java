@@ -1,14 +1,27 @@
 package com.example.demo.student;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 public class Student {
 
     private final Integer studentId;
     private final String studentName;
+    private final long version;
 
+    @JsonCreator
     public Student(Integer studentId,
                    String studentName) {
+        this(studentId, studentName, 0);
+    }
+
+    // The repository stores every insert and update as a new Student with the next version
+    Student(Integer studentId,
+            String studentName,
+            long version) {
         this.studentId = studentId;
         this.studentName = studentName;
+        this.version = version;
     }
 
     public Integer getStudentId() {
@@ -19,6 +32,11 @@ public class Student {
         return studentName;
     }
 
+    @JsonIgnore
+    public long getVersion() {
+        return version;
+    }
+
     @Override
     public String toString() {
         return "Student{" +
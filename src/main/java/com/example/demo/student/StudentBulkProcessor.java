@@ -0,0 +1,203 @@
+package com.example.demo.student;
+
+import com.example.demo.audit.AuditEventType;
+import com.example.demo.audit.AuditLog;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+// Applies a bulk request one record at a time as it is parsed, and writes one result per record in the
+// request's own format: a JSON array for a JSON array body, a line each for NDJSON. Neither side is ever held
+// in memory, so a nightly sync of hundreds of thousands of records costs what a single record does.
+// Results are flushed and audited once per batch, which keeps the client informed without a write per record
+// and bounds the audit log to one event per batch. A client has to read results while it is still sending,
+// once the socket buffers fill up writing the results blocks and so does reading the rest of the body.
+@Component
+public class StudentBulkProcessor {
+
+    public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+
+    private final StudentRepository studentRepository;
+    private final StudentResponseCache studentResponseCache;
+    private final AuditLog auditLog;
+    private final ObjectMapper objectMapper;
+    private final ObjectReader changeReader;
+    private final int batchSize;
+
+    @Autowired
+    public StudentBulkProcessor(StudentRepository studentRepository,
+                                StudentResponseCache studentResponseCache,
+                                AuditLog auditLog,
+                                ObjectMapper objectMapper,
+                                StudentConfig studentConfig) {
+        this.studentRepository = studentRepository;
+        this.studentResponseCache = studentResponseCache;
+        this.auditLog = auditLog;
+        this.objectMapper = objectMapper;
+        this.changeReader = objectMapper.readerFor(StudentChange.class);
+        this.batchSize = studentConfig.getBulkBatchSize();
+    }
+
+    public void process(InputStream body,
+                        OutputStream results,
+                        boolean jsonArray,
+                        String principal,
+                        String remoteAddress) throws IOException {
+        Batch batch = new Batch();
+        try (MappingIterator<StudentChange> changes = changeReader.readValues(body);
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(results)) {
+            // Root values are separated by hand, a newline after each for NDJSON
+            generator.setRootValueSeparator(null);
+            if (jsonArray) {
+                generator.writeStartArray();
+            }
+
+            boolean readable = true;
+            for (long index = 0; readable; index++) {
+                try {
+                    if (!changes.hasNextValue()) {
+                        break;
+                    }
+                    StudentChange change = changes.nextValue();
+                    if (change == null) {
+                        throw new IllegalArgumentException("A change is required, not null");
+                    }
+                    int studentId = apply(change);
+                    writeApplied(generator, index, change.getOp(), studentId);
+                    batch.applied(change.getOp());
+                } catch (JsonParseException e) {
+                    // Not JSON any more, there is no next record to resynchronise on
+                    writeFailed(generator, index, "Malformed body: " + e.getOriginalMessage());
+                    batch.failed();
+                    readable = false;
+                } catch (JsonMappingException e) {
+                    // Valid JSON that is not a change; the iterator skips to the next record
+                    writeFailed(generator, index, "Malformed record: " + e.getOriginalMessage());
+                    batch.failed();
+                } catch (IllegalStateException | IllegalArgumentException e) {
+                    writeFailed(generator, index, e.getMessage());
+                    batch.failed();
+                }
+                if (!jsonArray) {
+                    generator.writeRaw('\n');
+                }
+
+                if (batch.size() == batchSize) {
+                    generator.flush();
+                    batch.audit(principal, remoteAddress);
+                }
+            }
+
+            if (jsonArray) {
+                generator.writeEndArray();
+                generator.writeRaw('\n');
+            }
+        } finally {
+            batch.audit(principal, remoteAddress);
+        }
+    }
+
+    // The id of the student changed, inserts without one are given the next free id
+    private int apply(StudentChange change) {
+        switch (change.getOp()) {
+            case INSERT:
+                return studentRepository.insertStudent(new Student(change.getStudentId(), requireName(change))).getStudentId();
+            case UPDATE:
+                studentRepository.updateStudent(requireId(change), new Student(change.getStudentId(), requireName(change)));
+                studentResponseCache.invalidate(change.getStudentId());
+                return change.getStudentId();
+            case DELETE:
+                studentRepository.deleteStudentById(requireId(change));
+                studentResponseCache.invalidate(change.getStudentId());
+                return change.getStudentId();
+            default:
+                throw new IllegalArgumentException("Unknown operation " + change.getOp());
+        }
+    }
+
+    private static int requireId(StudentChange change) {
+        if (change.getStudentId() == null) {
+            throw new IllegalArgumentException("studentId is required to " + change.getOp().getTag());
+        }
+        return change.getStudentId();
+    }
+
+    private static String requireName(StudentChange change) {
+        if (change.getStudentName() == null) {
+            throw new IllegalArgumentException("studentName is required to " + change.getOp().getTag());
+        }
+        return change.getStudentName();
+    }
+
+    private static void writeApplied(JsonGenerator generator,
+                                     long index,
+                                     StudentChange.Operation op,
+                                     int studentId) throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("index", index);
+        generator.writeStringField("op", op.getTag());
+        generator.writeNumberField("studentId", studentId);
+        generator.writeStringField("status", "ok");
+        generator.writeEndObject();
+    }
+
+    private static void writeFailed(JsonGenerator generator, long index, String error) throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("index", index);
+        generator.writeStringField("status", "failed");
+        generator.writeStringField("error", error);
+        generator.writeEndObject();
+    }
+
+    // Outcome counts since the last flush, audited as one event
+    private class Batch {
+
+        private int inserted;
+        private int updated;
+        private int deleted;
+        private int failed;
+
+        void applied(StudentChange.Operation op) {
+            switch (op) {
+                case INSERT:
+                    inserted++;
+                    break;
+                case UPDATE:
+                    updated++;
+                    break;
+                case DELETE:
+                    deleted++;
+                    break;
+            }
+        }
+
+        void failed() {
+            failed++;
+        }
+
+        int size() {
+            return inserted + updated + deleted + failed;
+        }
+
+        void audit(String principal, String remoteAddress) {
+            if (size() == 0) {
+                return;
+            }
+            auditLog.record(AuditEventType.STUDENTS_BULK_APPLIED, principal, remoteAddress, String.format(
+                    "inserted=%d updated=%d deleted=%d failed=%d", inserted, updated, deleted, failed));
+            inserted = 0;
+            updated = 0;
+            deleted = 0;
+            failed = 0;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.demo.student;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.Locale;
+
+// One record of a bulk request: {"op": "insert" | "update" | "delete", "studentId": ..., "studentName": ...}
+// Without an op the record is an insert, like a plain POST.
+public class StudentChange {
+
+    public enum Operation {
+        @JsonProperty("insert") INSERT,
+        @JsonProperty("update") UPDATE,
+        @JsonProperty("delete") DELETE;
+
+        private final String tag = name().toLowerCase(Locale.ROOT);
+
+        public String getTag() {
+            return tag;
+        }
+    }
+
+    private Operation op = Operation.INSERT;
+    private Integer studentId;
+    private String studentName;
+
+    public StudentChange() {
+    }
+
+    public Operation getOp() {
+        return op;
+    }
+
+    // An explicit null is the same as leaving op out
+    public void setOp(Operation op) {
+        this.op = op == null ? Operation.INSERT : op;
+    }
+
+    public Integer getStudentId() {
+        return studentId;
+    }
+
+    public void setStudentId(Integer studentId) {
+        this.studentId = studentId;
+    }
+
+    public String getStudentName() {
+        return studentName;
+    }
+
+    public void setStudentName(String studentName) {
+        this.studentName = studentName;
+    }
+}
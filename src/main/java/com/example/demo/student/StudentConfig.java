@@ -0,0 +1,47 @@
+package com.example.demo.student;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "application.students")
+public class StudentConfig {
+
+    private Integer maximumStudentId;
+    private Integer maximumPageSize;
+    private Integer bulkBatchSize;
+    private Long responseCacheMaximumSize;
+
+    public StudentConfig() {
+    }
+
+    public Integer getMaximumStudentId() {
+        return maximumStudentId;
+    }
+
+    public void setMaximumStudentId(Integer maximumStudentId) {
+        this.maximumStudentId = maximumStudentId;
+    }
+
+    public Integer getMaximumPageSize() {
+        return maximumPageSize;
+    }
+
+    public void setMaximumPageSize(Integer maximumPageSize) {
+        this.maximumPageSize = maximumPageSize;
+    }
+
+    public Integer getBulkBatchSize() {
+        return bulkBatchSize;
+    }
+
+    public void setBulkBatchSize(Integer bulkBatchSize) {
+        this.bulkBatchSize = bulkBatchSize;
+    }
+
+    public Long getResponseCacheMaximumSize() {
+        return responseCacheMaximumSize;
+    }
+
+    public void setResponseCacheMaximumSize(Long responseCacheMaximumSize) {
+        this.responseCacheMaximumSize = responseCacheMaximumSize;
+    }
+}
@@ -1,30 +1,47 @@
 package com.example.demo.student;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
-
-import java.util.Arrays;
-import java.util.List;
+import org.springframework.web.context.request.ServletWebRequest;
 
 @RestController
 @RequestMapping("api/v1/students")
+@Profile("!reactive")
 public class StudentController {
 
-    private static final List<Student> STUDENTS = Arrays.asList(
-      new Student(1, "James Bond"),
-      new Student(2, "Maria Jones"),
-      new Student(3, "Anna Smith")
-    );
+    private final StudentRepository studentRepository;
+    private final StudentResponseCache studentResponseCache;
+
+    @Autowired
+    public StudentController(StudentRepository studentRepository, StudentResponseCache studentResponseCache) {
+        this.studentRepository = studentRepository;
+        this.studentResponseCache = studentResponseCache;
+    }
 
+    // api/** needs the STUDENT role in the security chain, so the cache is only reached once that has passed.
+    // A matching If-None-Match gets a 304 from the version alone; anything else gets the cached bytes.
     @GetMapping(path = "{studentId}")
-    public Student getStudent(@PathVariable("studentId") Integer studentId) {
-        return STUDENTS.stream()
-                .filter(student -> studentId.equals(student.getStudentId()))
-                .findFirst()
+    public ResponseEntity<byte[]> getStudent(@PathVariable("studentId") Integer studentId, ServletWebRequest request) {
+        Student student = studentRepository.selectStudentById(studentId)
                 .orElseThrow(() -> new IllegalStateException(
                         "Student " + studentId + " does not exists"
                 ));
+
+        String etag = studentResponseCache.etagOf(student);
+        request.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, StudentResponseCache.CACHE_CONTROL.getHeaderValue());
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(studentResponseCache.serialize(student));
     }
 }
@@ -1,48 +1,139 @@
 package com.example.demo.student;
 
+import com.example.demo.audit.AuditEventType;
+import com.example.demo.audit.AuditLog;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterators;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.Arrays;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.security.Principal;
+import java.util.Iterator;
 import java.util.List;
 
 @RestController
 @RequestMapping("management/api/v1/students")
+@Profile("!reactive")
 public class StudentManagementController {
 
-    private static final List<Student> STUDENTS = Arrays.asList(
-            new Student(1, "James Bond"),
-            new Student(2, "Maria Jones"),
-            new Student(3, "Anna Smith")
-    );
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private final StudentRepository studentRepository;
+    private final StudentBulkProcessor studentBulkProcessor;
+    private final StudentStreamWriter studentStreamWriter;
+    private final StudentResponseCache studentResponseCache;
+    private final AuditLog auditLog;
+    private final int maximumPageSize;
+
+    @Autowired
+    public StudentManagementController(StudentRepository studentRepository,
+                                       StudentBulkProcessor studentBulkProcessor,
+                                       StudentStreamWriter studentStreamWriter,
+                                       StudentResponseCache studentResponseCache,
+                                       AuditLog auditLog,
+                                       StudentConfig studentConfig) {
+        this.studentRepository = studentRepository;
+        this.studentBulkProcessor = studentBulkProcessor;
+        this.studentStreamWriter = studentStreamWriter;
+        this.studentResponseCache = studentResponseCache;
+        this.auditLog = auditLog;
+        this.maximumPageSize = studentConfig.getMaximumPageSize();
+    }
 
 //    hasRole('ROLE_') hasAnyRole('ROLE_') hasAuthority('permission') hasAnyAuthority('permission')
 
+    // Keyset pagination on studentId: after is the last id of the previous page and X-Next-Cursor carries the
+    // one to ask for next, absent on the last page. Unlike an offset, a cursor neither slows down with depth
+    // nor skips or repeats students when others are inserted or deleted in between.
     @GetMapping
     @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_ADMINTRAINEE')")
-    public List<Student> getAllStudents() {
-        System.out.println("getAllStudents");
-        return STUDENTS;
+    public ResponseEntity<List<Student>> getAllStudents(@RequestParam(required = false) Integer after,
+                                                        @RequestParam(defaultValue = "0") int page,
+                                                        @RequestParam(defaultValue = "100") int size) {
+        int pageSize = pageSize(page, size, maximumPageSize);
+        if (after == null && page > 0) {
+            // Offset paging for existing clients, page n scans past n * size students first
+            return ResponseEntity.ok(studentRepository.selectStudents(page, pageSize));
+        }
+
+        Iterator<Student> students = studentRepository.iterateStudentsAfter(after == null ? 0 : after);
+        List<Student> result = ImmutableList.copyOf(Iterators.limit(students, pageSize));
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (!result.isEmpty() && students.hasNext()) {
+            response.header(NEXT_CURSOR_HEADER, result.get(result.size() - 1).getStudentId().toString());
+        }
+        return response.body(result);
+    }
+
+    // Opt-in: every student after the cursor, written to the response as the rows are read rather than
+    // collected into a list and serialized in one go. Runs on the request thread, so there is no async
+    // timeout to outlive on a large table.
+    @GetMapping(params = "stream=true")
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_ADMINTRAINEE')")
+    public void streamAllStudents(@RequestParam(defaultValue = "0") int after, HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        studentStreamWriter.write(studentRepository.iterateStudentsAfter(after), response.getOutputStream());
     }
 
     @PostMapping
     @PreAuthorize("hasAuthority('student:write')")
-    public void registerNewStudent(@RequestBody Student student) {
-        System.out.println("registerNewStudent");
-        System.out.println(student);
+    public void registerNewStudent(@RequestBody Student student, HttpServletRequest request) {
+        studentRepository.insertStudent(student);
+        auditLog.record(AuditEventType.STUDENT_REGISTERED, request, student.toString());
     }
 
     @DeleteMapping(path = "{studentId}")
     @PreAuthorize("hasAuthority('student:write')")
-    public void deleteStudent(@PathVariable("studentId") Integer studentId) {
-        System.out.println("deleteStudent");
-        System.out.println(studentId);
+    public void deleteStudent(@PathVariable("studentId") Integer studentId, HttpServletRequest request) {
+        studentRepository.deleteStudentById(studentId);
+        studentResponseCache.invalidate(studentId);
+        auditLog.record(AuditEventType.STUDENT_DELETED, request, studentId.toString());
     }
 
     @PutMapping(path = "{studentId}")
     @PreAuthorize("hasAuthority('student:write')")
-    public void updateStudent(@PathVariable("studentId") Integer studentId, @RequestBody Student student) {
-        System.out.println("updateStudent");
-        System.out.println(String.format("%s %s", studentId, student));
+    public void updateStudent(@PathVariable("studentId") Integer studentId, @RequestBody Student student, HttpServletRequest request) {
+        studentRepository.updateStudent(studentId, student);
+        studentResponseCache.invalidate(studentId);
+        auditLog.record(AuditEventType.STUDENT_UPDATED, request, studentId + " " + student);
+    }
+
+    // Inserts, updates and deletes from an NDJSON or JSON array body, one token verification and one
+    // authorization for the lot. Results stream back per record, so the response is always a 200.
+    @PostMapping(path = "bulk", consumes = {StudentBulkProcessor.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    @PreAuthorize("hasAuthority('student:write')")
+    public void applyChanges(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        boolean jsonArray = MediaType.APPLICATION_JSON.isCompatibleWith(MediaType.parseMediaType(request.getContentType()));
+        response.setContentType(jsonArray ? MediaType.APPLICATION_JSON_VALUE : StudentBulkProcessor.APPLICATION_NDJSON_VALUE);
+
+        Principal principal = request.getUserPrincipal();
+        studentBulkProcessor.process(
+                request.getInputStream(),
+                response.getOutputStream(),
+                jsonArray,
+                principal == null ? null : principal.getName(),
+                request.getRemoteAddr()
+        );
+    }
+
+    // Larger pages are cut down to the maximum, a whole table in one list is what paging is there to avoid
+    public static int pageSize(int page, int size, int maximumPageSize) {
+        if (page < 0 || size < 1) {
+            throw new IllegalArgumentException("page must not be negative and size must be positive");
+        }
+        return Math.min(size, maximumPageSize);
+    }
+
+    // A missing name, an id out of range and the like are the caller's mistake, not the server's
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Void> rejectInvalidRequest() {
+        return ResponseEntity.badRequest().build();
     }
 }
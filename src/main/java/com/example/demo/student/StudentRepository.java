@@ -0,0 +1,262 @@
+package com.example.demo.student;
+
+import com.example.demo.storage.RecordLog;
+import com.example.demo.storage.StorageEngine;
+import com.google.common.collect.AbstractIterator;
+import com.google.common.util.concurrent.Striped;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.Lock;
+
+@Repository
+public class StudentRepository {
+
+    private static final int CHUNK_BITS = 12;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    // Students live in fixed size chunks addressed directly by their int id, so a lookup is two array reads.
+    // Reads are lock-free; installing a new chunk takes the chunk lock and republishes the directory.
+    private volatile AtomicReferenceArray<Student>[] chunks = newDirectory(0);
+    private final Object chunkLock = new Object();
+    private final AtomicInteger studentCount = new AtomicInteger();
+    private final AtomicInteger nextStudentId = new AtomicInteger(1);
+    // Every student stored gets the next version, so the version of an id changes whenever its student does.
+    // Versions start over with the process, they are not persisted.
+    private final AtomicLong lastVersion = new AtomicLong();
+
+    // Null when storage is disabled. Writers to the same id hold the same stripe so the log
+    // records their changes in the order they hit the slot; readers never take these locks.
+    private final RecordLog recordLog;
+    private final Striped<Lock> writeLocks = Striped.lock(64);
+    // Ids are slots, so the largest one bounds the chunk directory and keeps nextStudentId from overflowing
+    private final int maximumStudentId;
+
+    @Autowired
+    public StudentRepository(StorageEngine storageEngine, StudentConfig studentConfig) {
+        this.recordLog = storageEngine.open("students").orElse(null);
+        this.maximumStudentId = studentConfig.getMaximumStudentId();
+
+        if (recordLog != null && recordLog.size() > 0) {
+            recordLog.forEach((studentId, studentName) -> store(new Student(
+                    Integer.parseInt(studentId),
+                    new String(studentName, StandardCharsets.UTF_8),
+                    lastVersion.incrementAndGet()
+            )));
+        } else {
+            insertStudent(new Student(1, "James Bond"));
+            insertStudent(new Student(2, "Maria Jones"));
+            insertStudent(new Student(3, "Anna Smith"));
+        }
+    }
+
+    public Optional<Student> selectStudentById(int studentId) {
+        AtomicReferenceArray<Student> chunk = chunkOf(studentId);
+        return chunk == null ? Optional.empty() : Optional.ofNullable(chunk.get(studentId & CHUNK_MASK));
+    }
+
+    public List<Student> selectStudents(int page, int size) {
+        List<Student> students = new ArrayList<>(Math.min(size, studentCount.get()));
+        long skip = (long) page * size;
+        AtomicReferenceArray<Student>[] directory = chunks;
+        for (AtomicReferenceArray<Student> chunk : directory) {
+            if (chunk == null) {
+                continue;
+            }
+            for (int offset = 0; offset < CHUNK_SIZE && students.size() < size; offset++) {
+                Student student = chunk.get(offset);
+                if (student != null && skip-- <= 0) {
+                    students.add(student);
+                }
+            }
+            if (students.size() == size) {
+                break;
+            }
+        }
+        return students;
+    }
+
+    // Students with an id above afterId, in id order. Ids are slots, so this starts right at afterId's chunk
+    // instead of skipping over every earlier student like selectStudents, and walks the slots lazily,
+    // so a caller can stream the whole table without copying it.
+    // Weakly consistent like the reads: each student is as of the moment its slot is read, and a student
+    // inserted behind the iterator is not seen, one inserted ahead of it is.
+    public Iterator<Student> iterateStudentsAfter(int afterId) {
+        return new AbstractIterator<>() {
+
+            private long nextId = Math.max(afterId, 0) + 1L;
+
+            @Override
+            protected Student computeNext() {
+                AtomicReferenceArray<Student>[] directory = chunks;
+                while (nextId <= Integer.MAX_VALUE) {
+                    int chunkIndex = (int) (nextId >>> CHUNK_BITS);
+                    if (chunkIndex >= directory.length) {
+                        break;
+                    }
+                    AtomicReferenceArray<Student> chunk = directory[chunkIndex];
+                    if (chunk == null) {
+                        nextId = (long) (chunkIndex + 1) << CHUNK_BITS;
+                        continue;
+                    }
+                    Student student = chunk.get((int) nextId & CHUNK_MASK);
+                    nextId++;
+                    if (student != null) {
+                        return student;
+                    }
+                }
+                return endOfData();
+            }
+        };
+    }
+
+    public int countStudents() {
+        return studentCount.get();
+    }
+
+    public Student insertStudent(Student student) {
+        String studentName = requireName(student);
+        int studentId;
+        if (student.getStudentId() == null) {
+            studentId = nextStudentId.getAndIncrement();
+            checkId(studentId);
+        } else {
+            studentId = checkId(student.getStudentId());
+            // Ids handed out from here on start past the caller's, the one it may have raced is a plain conflict
+            nextStudentId.accumulateAndGet(studentId + 1, Math::max);
+        }
+        AtomicReferenceArray<Student> chunk = writableChunkOf(studentId);
+        Student stored;
+
+        Lock lock = writeLocks.get(studentId);
+        lock.lock();
+        try {
+            if (chunk.get(studentId & CHUNK_MASK) != null) {
+                throw new IllegalStateException("Student " + studentId + " already exists");
+            }
+            // Logged before it is published, a write that fails leaves the student as it was
+            stored = new Student(studentId, studentName, lastVersion.incrementAndGet());
+            persist(stored);
+            store(stored);
+        } finally {
+            lock.unlock();
+        }
+        return stored;
+    }
+
+    public Student updateStudent(int studentId, Student student) {
+        String studentName = requireName(student);
+        AtomicReferenceArray<Student> chunk = chunkOf(studentId);
+        Student stored;
+
+        Lock lock = writeLocks.get(studentId);
+        lock.lock();
+        try {
+            if (chunk == null || chunk.get(studentId & CHUNK_MASK) == null) {
+                throw new IllegalStateException("Student " + studentId + " does not exists");
+            }
+            // Taken under the stripe, so the later of two writers to an id always has the higher version
+            stored = new Student(studentId, studentName, lastVersion.incrementAndGet());
+            persist(stored);
+            chunk.set(studentId & CHUNK_MASK, stored);
+        } finally {
+            lock.unlock();
+        }
+        return stored;
+    }
+
+    public void deleteStudentById(int studentId) {
+        AtomicReferenceArray<Student> chunk = chunkOf(studentId);
+
+        Lock lock = writeLocks.get(studentId);
+        lock.lock();
+        try {
+            if (chunk == null || chunk.get(studentId & CHUNK_MASK) == null) {
+                throw new IllegalStateException("Student " + studentId + " does not exists");
+            }
+            if (recordLog != null) {
+                recordLog.delete(Integer.toString(studentId));
+            }
+            chunk.set(studentId & CHUNK_MASK, null);
+            studentCount.decrementAndGet();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void store(Student student) {
+        int studentId = student.getStudentId();
+        if (!writableChunkOf(studentId).compareAndSet(studentId & CHUNK_MASK, null, student)) {
+            throw new IllegalStateException("Student " + studentId + " already exists");
+        }
+        studentCount.incrementAndGet();
+        nextStudentId.accumulateAndGet(studentId + 1, Math::max);
+    }
+
+    private int checkId(int studentId) {
+        if (studentId <= 0 || studentId > maximumStudentId) {
+            throw new IllegalArgumentException("Student id must be between 1 and " + maximumStudentId + " but was " + studentId);
+        }
+        return studentId;
+    }
+
+    private static String requireName(Student student) {
+        if (student.getStudentName() == null) {
+            throw new IllegalArgumentException("studentName is required");
+        }
+        return student.getStudentName();
+    }
+
+    private void persist(Student student) {
+        if (recordLog != null) {
+            recordLog.put(student.getStudentId().toString(), student.getStudentName().getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private AtomicReferenceArray<Student> chunkOf(int studentId) {
+        if (studentId <= 0) {
+            return null;
+        }
+        AtomicReferenceArray<Student>[] directory = chunks;
+        int chunkIndex = studentId >>> CHUNK_BITS;
+        return chunkIndex < directory.length ? directory[chunkIndex] : null;
+    }
+
+    private AtomicReferenceArray<Student> writableChunkOf(int studentId) {
+        if (studentId <= 0) {
+            throw new IllegalArgumentException("Student id must be positive but was " + studentId);
+        }
+        AtomicReferenceArray<Student> chunk = chunkOf(studentId);
+        if (chunk != null) {
+            return chunk;
+        }
+
+        synchronized (chunkLock) {
+            int chunkIndex = studentId >>> CHUNK_BITS;
+            AtomicReferenceArray<Student>[] directory = chunks;
+            if (chunkIndex < directory.length && directory[chunkIndex] != null) {
+                return directory[chunkIndex];
+            }
+
+            AtomicReferenceArray<Student>[] grown = Arrays.copyOf(directory, Math.max(directory.length, chunkIndex + 1));
+            grown[chunkIndex] = new AtomicReferenceArray<>(CHUNK_SIZE);
+            chunks = grown;
+            return grown[chunkIndex];
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static AtomicReferenceArray<Student>[] newDirectory(int length) {
+        return new AtomicReferenceArray[length];
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.demo.student;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.stereotype.Component;
+
+import java.io.UncheckedIOException;
+import java.util.concurrent.atomic.LongAdder;
+
+// Strong ETags and serialized bodies for single student reads. The ETag is the student's version, so a
+// conditional GET is answered without touching Jackson, and the body is serialized once per version.
+// An entry is only served for the version it was serialized from: a write racing a read costs a miss,
+// never stale bytes, and dropping entries when the management endpoints change a student just frees them.
+// Nothing here checks roles, callers only get here once the security chain has let the request through.
+@Component
+public class StudentResponseCache implements MeterBinder {
+
+    // Revalidated on every use, and never kept by a shared cache, since the reads need a token
+    public static final CacheControl CACHE_CONTROL = CacheControl.noCache().cachePrivate();
+
+    // Versions start over with the process, so a tag handed out by an earlier run can never match
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final ObjectWriter studentWriter;
+    private final Cache<Integer, SerializedStudent> responses;
+    private final LongAdder staleCount = new LongAdder();
+
+    @Autowired
+    public StudentResponseCache(ObjectMapper objectMapper, StudentConfig studentConfig) {
+        this.studentWriter = objectMapper.writerFor(Student.class);
+        this.responses = CacheBuilder.newBuilder()
+                .maximumSize(studentConfig.getResponseCacheMaximumSize())
+                .recordStats()
+                .build();
+    }
+
+    public String etagOf(Student student) {
+        return "\"" + epoch + "-" + Long.toString(student.getVersion(), 36) + "\"";
+    }
+
+    public byte[] serialize(Student student) {
+        SerializedStudent cached = responses.getIfPresent(student.getStudentId());
+        if (cached != null) {
+            if (cached.version == student.getVersion()) {
+                return cached.body;
+            }
+            staleCount.increment();
+        }
+
+        byte[] body;
+        try {
+            body = studentWriter.writeValueAsBytes(student);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+        // A reader still holding an older version must not replace a newer entry
+        responses.asMap().merge(student.getStudentId(), new SerializedStudent(student.getVersion(), body),
+                (current, serialized) -> current.version >= serialized.version ? current : serialized);
+        return body;
+    }
+
+    public void invalidate(int studentId) {
+        responses.invalidate(studentId);
+    }
+
+    public long getHitCount() {
+        return responses.stats().hitCount() - staleCount.sum();
+    }
+
+    public long getMissCount() {
+        return responses.stats().missCount() + staleCount.sum();
+    }
+
+    public long size() {
+        return responses.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry meterRegistry) {
+        FunctionCounter.builder("students.response.cache.requests", this, StudentResponseCache::getHitCount)
+                .description("Single student reads against the serialized response cache")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("students.response.cache.requests", this, StudentResponseCache::getMissCount)
+                .description("Single student reads against the serialized response cache")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("students.response.cache.size", this, StudentResponseCache::size)
+                .description("Serialized students currently cached")
+                .register(meterRegistry);
+    }
+
+    private static class SerializedStudent {
+
+        private final long version;
+        private final byte[] body;
+
+        private SerializedStudent(long version, byte[] body) {
+            this.version = version;
+            this.body = body;
+        }
+    }
+}
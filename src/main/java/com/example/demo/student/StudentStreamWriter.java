@@ -0,0 +1,31 @@
+package com.example.demo.student;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+
+// Writes students as one JSON array straight onto a stream as they come off the iterator. The generator's
+// and the container's buffers are all that is held, so the first rows leave once a few kilobytes are ready
+// and memory does not depend on how many rows there are.
+@Component
+public class StudentStreamWriter {
+
+    private final ObjectWriter studentsWriter;
+
+    @Autowired
+    public StudentStreamWriter(ObjectMapper objectMapper) {
+        // Jackson writes an Iterator as an array, pulling one element at a time, so the whole listing is one
+        // writeValue and the serializer lookup and provider are paid once rather than per row
+        this.studentsWriter = objectMapper.writerFor(new TypeReference<Iterator<Student>>() { });
+    }
+
+    public void write(Iterator<Student> students, OutputStream out) throws IOException {
+        studentsWriter.writeValue(out, students);
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.demo.web;
+
+import com.google.common.base.Splitter;
+import com.google.common.hash.Hashing;
+import com.google.common.io.BaseEncoding;
+import org.springframework.http.HttpHeaders;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+// A response body that never changes for the life of the process, with its compressed variants and
+// strong ETags worked out once. Serving it is picking a variant and copying bytes: no rendering,
+// no compression and no hashing per request, and a matching If-None-Match costs nothing but headers.
+public final class CachedContent {
+
+    private static final Splitter LIST_SPLITTER = Splitter.on(',').trimResults().omitEmptyStrings();
+
+    private final String contentType;
+    private final String cacheControl;
+    private final Variant identity;
+    private final Variant gzip;
+    private final Variant brotli;
+
+    // brotli is a variant compressed ahead of time, the JDK has no encoder for it; may be null
+    public CachedContent(byte[] content, byte[] brotli, String contentType, String cacheControl) {
+        String digest = BaseEncoding.base64Url().omitPadding()
+                .encode(Hashing.sha256().hashBytes(content).asBytes(), 0, 16);
+        this.contentType = contentType;
+        this.cacheControl = cacheControl;
+        this.identity = new Variant(content, null, "\"" + digest + "\"");
+        this.gzip = smaller(new Variant(gzip(content), "gzip", "\"" + digest + "-gz\""), content);
+        this.brotli = brotli == null ? null : smaller(new Variant(brotli, "br", "\"" + digest + "-br\""), content);
+    }
+
+    public void write(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Variant variant = select(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        response.setHeader(HttpHeaders.ETAG, variant.etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+        if (gzip != null || brotli != null) {
+            response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+        if (notModified(request.getHeader(HttpHeaders.IF_NONE_MATCH))) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        response.setContentType(contentType);
+        if (variant.encoding != null) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, variant.encoding);
+        }
+        response.setContentLength(variant.body.length);
+        if (!"HEAD".equals(request.getMethod())) {
+            response.getOutputStream().write(variant.body);
+        }
+    }
+
+    // Quality values are not weighed, a coding is either accepted or not; q=0 counts as not
+    private Variant select(String acceptEncoding) {
+        if (acceptEncoding == null || (gzip == null && brotli == null)) {
+            return identity;
+        }
+        boolean acceptsGzip = false;
+        for (String coding : LIST_SPLITTER.split(acceptEncoding)) {
+            if (coding.endsWith("q=0") || coding.endsWith("q=0.0")) {
+                continue;
+            }
+            if (brotli != null && coding.startsWith("br")) {
+                return brotli;
+            }
+            acceptsGzip |= coding.startsWith("gzip");
+        }
+        return acceptsGzip && gzip != null ? gzip : identity;
+    }
+
+    // Every variant has the same content, so a tag of any of them is a match
+    private boolean notModified(String ifNoneMatch) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String etag : LIST_SPLITTER.split(ifNoneMatch)) {
+            if (etag.equals("*")
+                    || etag.equals(identity.etag)
+                    || (gzip != null && etag.equals(gzip.etag))
+                    || (brotli != null && etag.equals(brotli.etag))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Tiny bodies grow when compressed, those are only ever sent as they are
+    private static Variant smaller(Variant variant, byte[] content) {
+        return variant.body.length < content.length ? variant : null;
+    }
+
+    private static byte[] gzip(byte[] content) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(content.length / 2 + 32);
+        try (GZIPOutputStream out = new BestCompressionGzipOutputStream(bytes)) {
+            out.write(content);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    // Compressed once and served many times, so the slowest level is worth it
+    private static class BestCompressionGzipOutputStream extends GZIPOutputStream {
+
+        private BestCompressionGzipOutputStream(ByteArrayOutputStream out) throws IOException {
+            super(out);
+            def.setLevel(Deflater.BEST_COMPRESSION);
+        }
+    }
+
+    private static class Variant {
+
+        private final byte[] body;
+        private final String encoding;
+        private final String etag;
+
+        private Variant(byte[] body, String encoding, String etag) {
+            this.body = body;
+            this.encoding = encoding;
+            this.etag = etag;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.demo.web;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "application.assets")
+public class StaticAssetConfig {
+
+    private Boolean enabled;
+    private Long maxAgeSeconds;
+    private Integer maxCachedBytes;
+
+    public StaticAssetConfig() {
+    }
+
+    public Boolean getEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(Boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Long getMaxAgeSeconds() {
+        return maxAgeSeconds;
+    }
+
+    public void setMaxAgeSeconds(Long maxAgeSeconds) {
+        this.maxAgeSeconds = maxAgeSeconds;
+    }
+
+    public Integer getMaxCachedBytes() {
+        return maxCachedBytes;
+    }
+
+    public void setMaxCachedBytes(Integer maxCachedBytes) {
+        this.maxCachedBytes = maxCachedBytes;
+    }
+}
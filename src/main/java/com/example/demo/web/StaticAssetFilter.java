@@ -0,0 +1,113 @@
+package com.example.demo.web;
+
+import com.google.common.collect.ImmutableMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+// Serves the public files under classpath:/static from memory, ahead of the security filter chain and the
+// DispatcherServlet. Only paths matching the public patterns are loaded, anything else dropped into static/
+// still goes through the chain and needs a rule of its own there. The files are read, compressed and hashed once at startup; a classpath file named
+// <asset>.br is taken as that asset's brotli variant. HTML is revalidated on every use, since its URL
+// never changes, while everything else may be cached for application.assets.maxAgeSeconds.
+// Files larger than maxCachedBytes are left to Spring's resource handling.
+public class StaticAssetFilter extends OncePerRequestFilter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StaticAssetFilter.class);
+    private static final String STATIC_LOCATION = "classpath:/static/";
+
+    private final Map<String, CachedContent> assets;
+
+    public StaticAssetFilter(StaticAssetConfig staticAssetConfig, String... publicPatterns) throws IOException {
+        this.assets = load(staticAssetConfig, publicPatterns);
+        LOGGER.info("Serving {} static assets from memory: {}", assets.size(), assets.keySet());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        CachedContent asset = "GET".equals(request.getMethod()) || "HEAD".equals(request.getMethod())
+                ? assets.get(request.getServletPath())
+                : null;
+        if (asset == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        asset.write(request, response);
+    }
+
+    private static Map<String, CachedContent> load(StaticAssetConfig staticAssetConfig, String[] publicPatterns) throws IOException {
+        AntPathMatcher pathMatcher = new AntPathMatcher();
+        PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
+        String root = resolver.getResource(STATIC_LOCATION).getURL().toString();
+        String assetCacheControl = "public, max-age=" + staticAssetConfig.getMaxAgeSeconds();
+
+        ImmutableMap.Builder<String, CachedContent> assets = ImmutableMap.builder();
+        for (Resource resource : resolver.getResources(STATIC_LOCATION + "**/*")) {
+            String path = resource.getURL().toString().substring(root.length() - 1);
+            if (!isPublic(pathMatcher, publicPatterns, path)
+                    || !resource.isReadable()
+                    || path.endsWith(".br")
+                    || resource.contentLength() > staticAssetConfig.getMaxCachedBytes()) {
+                continue;
+            }
+            MediaType mediaType = MediaTypeFactory.getMediaType(resource).orElse(MediaType.APPLICATION_OCTET_STREAM);
+            boolean html = MediaType.TEXT_HTML.equalsTypeAndSubtype(mediaType);
+            CachedContent asset = new CachedContent(
+                    read(resource),
+                    brotliVariant(resource),
+                    contentType(mediaType),
+                    html ? "no-cache" : assetCacheControl
+            );
+            assets.put(path, asset);
+            if (path.equals("/index.html")) {
+                assets.put("/", asset);
+            }
+        }
+        return assets.build();
+    }
+
+    private static boolean isPublic(AntPathMatcher pathMatcher, String[] publicPatterns, String path) {
+        for (String pattern : publicPatterns) {
+            if (pathMatcher.match(pattern, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static byte[] brotliVariant(Resource resource) throws IOException {
+        Resource brotli = resource.createRelative(resource.getFilename() + ".br");
+        return brotli.exists() ? read(brotli) : null;
+    }
+
+    private static byte[] read(Resource resource) throws IOException {
+        try (InputStream in = resource.getInputStream()) {
+            return StreamUtils.copyToByteArray(in);
+        }
+    }
+
+    // Text without a declared charset would be decoded with the browser's default, the files are UTF-8
+    private static String contentType(MediaType mediaType) {
+        if (mediaType.getType().equals("text") || mediaType.equalsTypeAndSubtype(MediaType.valueOf("application/javascript"))) {
+            return new MediaType(mediaType, StandardCharsets.UTF_8).toString();
+        }
+        return mediaType.toString();
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.demo.web;
+
+import com.example.demo.security.ApplicationSecurityConfig;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import java.io.IOException;
+
+@Configuration
+@Profile("!reactive")
+public class WebConfig {
+
+    // Ahead of Spring Security's filter chain, public assets never reach either JWT filter
+    @Bean
+    public FilterRegistrationBean<StaticAssetFilter> staticAssetFilter(StaticAssetConfig staticAssetConfig) throws IOException {
+        FilterRegistrationBean<StaticAssetFilter> registration = new FilterRegistrationBean<>(new StaticAssetFilter(
+                staticAssetConfig,
+                ApplicationSecurityConfig.PUBLIC_ASSET_PATTERNS
+        ));
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 10);
+        registration.setEnabled(Boolean.TRUE.equals(staticAssetConfig.getEnabled()));
+        return registration;
+    }
+}
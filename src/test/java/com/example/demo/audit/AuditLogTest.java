@@ -0,0 +1,78 @@
+package com.example.demo.audit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuditLogTest {
+
+    @TempDir
+    Path directory;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void writesEveryEventBeforeClosing() throws Exception {
+        AuditLog auditLog = open();
+        for (int i = 0; i < 500; i++) {
+            assertThat(auditLog.record(AuditEventType.LOGIN_SUCCEEDED, "linda", "127.0.0.1", "login " + i)).isTrue();
+        }
+        auditLog.close();
+
+        List<JsonNode> events = events();
+        assertThat(events).hasSize(500);
+        assertThat(events.get(499).get("detail").asText()).isEqualTo("login 499");
+        assertThat(count("written")).isEqualTo(500);
+    }
+
+    @Test
+    void dropsOnlyTheEventThatCannotBeEncoded() throws Exception {
+        AuditLog auditLog = open();
+        auditLog.record(AuditEventType.LOGIN_FAILED, "tom", "127.0.0.1", null);
+        // No type: fails halfway through the object
+        auditLog.record(null, "tom", "127.0.0.1", "broken");
+        auditLog.record(AuditEventType.LOGIN_SUCCEEDED, "tom", "127.0.0.1", null);
+        auditLog.close();
+
+        List<JsonNode> events = events();
+        assertThat(events).extracting(event -> event.get("event").asText())
+                .containsExactly("login_failed", "login_succeeded");
+        assertThat(count("written")).isEqualTo(2);
+        assertThat(count("failed")).isEqualTo(1);
+    }
+
+    private AuditLog open() throws IOException {
+        AuditConfig auditConfig = new AuditConfig();
+        auditConfig.setEnabled(true);
+        auditConfig.setDirectory(directory.toString());
+        auditConfig.setBufferCapacity(1024);
+        auditConfig.setBatchSize(64);
+        auditConfig.setIdleMillis(1L);
+        auditConfig.setMaxFileBytes(1024L * 1024);
+        auditConfig.setMaxFiles(2);
+        return new AuditLog(auditConfig, meterRegistry);
+    }
+
+    private List<JsonNode> events() throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        List<JsonNode> events = new ArrayList<>();
+        for (String line : Files.readAllLines(directory.resolve("audit.log"))) {
+            events.add(objectMapper.readTree(line));
+        }
+        return events;
+    }
+
+    private double count(String result) {
+        return meterRegistry.get("audit.events").tag("result", result).functionCounter().count();
+    }
+}
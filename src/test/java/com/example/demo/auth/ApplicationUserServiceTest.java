@@ -0,0 +1,62 @@
+package com.example.demo.auth;
+
+import com.example.demo.security.LoginThrottle;
+import com.example.demo.security.LoginThrottleConfig;
+import com.example.demo.storage.StorageConfig;
+import com.example.demo.storage.StorageEngine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ApplicationUserServiceTest {
+
+    private final PasswordEncoder passwordEncoder = new BCryptPasswordEncoder(4);
+
+    @Test
+    void storesAnUpgradedHashInAWritableStore() throws IOException {
+        StorageConfig storageConfig = new StorageConfig();
+        storageConfig.setEnabled(false);
+        ApplicationUserConfig applicationUserConfig = new ApplicationUserConfig();
+        applicationUserConfig.setExpectedUsers(100);
+        applicationUserConfig.setUsernameFalsePositiveRate(0.01);
+        ApplicationUserService applicationUserService = new ApplicationUserService(
+                new InMemoryApplicationUserDaoService(passwordEncoder, applicationUserConfig, new StorageEngine(storageConfig)),
+                loginThrottle()
+        );
+
+        UserDetails tom = applicationUserService.loadUserByUsername("tom");
+        UserDetails upgraded = applicationUserService.updatePassword(tom, "upgraded-hash");
+
+        assertThat(upgraded.getPassword()).isEqualTo("upgraded-hash");
+        assertThat(applicationUserService.loadUserByUsername("tom").getPassword()).isEqualTo("upgraded-hash");
+    }
+
+    @Test
+    void keepsTheStoredHashOfAReadOnlyStore() {
+        ApplicationUserService applicationUserService = new ApplicationUserService(
+                new FakeApplicationUserDaoService(passwordEncoder),
+                loginThrottle()
+        );
+
+        UserDetails tom = applicationUserService.loadUserByUsername("tom");
+
+        assertThat(applicationUserService.updatePassword(tom, "upgraded-hash")).isSameAs(tom);
+    }
+
+    private static LoginThrottle loginThrottle() {
+        LoginThrottleConfig loginThrottleConfig = new LoginThrottleConfig();
+        loginThrottleConfig.setEnabled(false);
+        loginThrottleConfig.setAddressAttempts(30);
+        loginThrottleConfig.setAddressPeriodSeconds(60L);
+        loginThrottleConfig.setUsernameFailures(5);
+        loginThrottleConfig.setUsernamePeriodSeconds(300L);
+        loginThrottleConfig.setMaximumKeys(1000L);
+        return new LoginThrottle(loginThrottleConfig, new SimpleMeterRegistry());
+    }
+}
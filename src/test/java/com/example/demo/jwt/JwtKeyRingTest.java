@@ -0,0 +1,148 @@
+package com.example.demo.jwt;
+
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.crypto.SecretKey;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyStore;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtKeyRingTest {
+
+    private static final String PASSWORD = "changeit";
+
+    @TempDir
+    Path directory;
+
+    private final SecretKey oldKey = Keys.hmacShaKeyFor("old-old-old-old-old-old-old-old-key!".getBytes(StandardCharsets.US_ASCII));
+    private final SecretKey newKey = Keys.hmacShaKeyFor("new-new-new-new-new-new-new-new-key!".getBytes(StandardCharsets.US_ASCII));
+
+    private Path keyStoreFile;
+    private long keyStoreModifiedMillis;
+    private JwtConfig jwtConfig;
+    private JwtKeyRing jwtKeyRing;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        keyStoreFile = directory.resolve("keys.p12");
+        writeKeyStore(Map.of("old", oldKey));
+
+        jwtConfig = new JwtConfig();
+        jwtConfig.setSecretKeyId("default");
+        jwtConfig.setKeyStore(keyStoreFile.toString());
+        jwtConfig.setKeyStoreType("PKCS12");
+        jwtConfig.setKeyStorePassword(PASSWORD);
+        jwtConfig.setTokenCacheMaximumSize(100L);
+        jwtConfig.setTokenCacheTtlSeconds(60);
+        jwtKeyRing = new JwtKeyRing(jwtConfig, new JwtTokenCache(jwtConfig));
+    }
+
+    @Test
+    void verifiesTokensSignedWithTheOldKeyAfterARotation() throws Exception {
+        assertThat(jwtKeyRing.getSigningKey().getKeyId()).isEqualTo("old");
+        String oldToken = sign(jwtKeyRing.getSigningKey());
+
+        jwtConfig.setSigningKeyId("new");
+        Map<String, Key> keys = new LinkedHashMap<>();
+        keys.put("old", oldKey);
+        keys.put("new", newKey);
+        writeKeyStore(keys);
+        jwtKeyRing.reloadIfModified();
+
+        assertThat(jwtKeyRing.getSigningKey().getKeyId()).isEqualTo("new");
+        assertThat(subject(oldToken)).isEqualTo("linda");
+        assertThat(subject(sign(jwtKeyRing.getSigningKey()))).isEqualTo("linda");
+    }
+
+    @Test
+    void stopsVerifyingTokensOfARemovedKey() throws Exception {
+        String oldToken = sign(jwtKeyRing.getSigningKey());
+
+        writeKeyStore(Map.of("new", newKey));
+        jwtKeyRing.reloadIfModified();
+
+        assertThatThrownBy(() -> subject(oldToken)).isInstanceOf(SignatureException.class);
+    }
+
+    @Test
+    void rejectsAnUnknownKeyId() {
+        String token = Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, "unknown")
+                .setSubject("linda")
+                .signWith(oldKey)
+                .compact();
+
+        assertThatThrownBy(() -> subject(token))
+                .isInstanceOf(SignatureException.class)
+                .hasMessageContaining("unknown");
+    }
+
+    @Test
+    void keepsTheCurrentRingWhenAReloadFails() throws Exception {
+        String oldToken = sign(jwtKeyRing.getSigningKey());
+
+        Files.write(keyStoreFile, "not a keystore".getBytes(StandardCharsets.US_ASCII));
+        touch();
+        jwtKeyRing.reloadIfModified();
+        assertThat(jwtKeyRing.getSigningKey().getKeyId()).isEqualTo("old");
+        assertThat(subject(oldToken)).isEqualTo("linda");
+
+        // A valid keystore that lacks the configured signing key is just as broken
+        jwtConfig.setSigningKeyId("missing");
+        writeKeyStore(Map.of("new", newKey));
+        jwtKeyRing.reloadIfModified();
+        assertThat(jwtKeyRing.getVerificationKeys()).containsOnlyKeys("old");
+        assertThat(subject(oldToken)).isEqualTo("linda");
+    }
+
+    private String subject(String token) {
+        return Jwts.parser()
+                .setSigningKeyResolver(jwtKeyRing)
+                .parseClaimsJws(token)
+                .getBody()
+                .getSubject();
+    }
+
+    private static String sign(JwtKeyRing.SigningKey signingKey) {
+        return Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, signingKey.getKeyId())
+                .setSubject("linda")
+                .signWith(signingKey.getKey())
+                .compact();
+    }
+
+    private void writeKeyStore(Map<String, Key> keys) throws IOException, GeneralSecurityException {
+        KeyStore keyStore = KeyStore.getInstance("PKCS12");
+        keyStore.load(null, null);
+        for (Map.Entry<String, Key> entry : keys.entrySet()) {
+            keyStore.setKeyEntry(entry.getKey(), entry.getValue(), PASSWORD.toCharArray(), null);
+        }
+        try (OutputStream out = Files.newOutputStream(keyStoreFile)) {
+            keyStore.store(out, PASSWORD.toCharArray());
+        }
+        touch();
+    }
+
+    // The ring polls the modification time, which may not move between two writes in one test otherwise
+    private void touch() throws IOException {
+        keyStoreModifiedMillis = Math.max(keyStoreModifiedMillis, Files.getLastModifiedTime(keyStoreFile).toMillis()) + 1000;
+        Files.setLastModifiedTime(keyStoreFile, FileTime.fromMillis(keyStoreModifiedMillis));
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.demo.jwt;
+
+import com.example.demo.storage.StorageConfig;
+import com.example.demo.storage.StorageEngine;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.example.demo.security.SecurityMetrics.Outcome.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RefreshTokenStoreTest {
+
+    @TempDir
+    Path directory;
+
+    private final JwtConfig jwtConfig = new JwtConfig();
+    private StorageEngine storageEngine;
+    private TokenRevocationService tokenRevocationService;
+    private RefreshTokenStore refreshTokenStore;
+
+    @BeforeEach
+    void setUp() {
+        jwtConfig.setAccessTokenExpirationSeconds(900L);
+        jwtConfig.setRefreshTokenExpirationSeconds(3600L);
+        jwtConfig.setRefreshTokenFamilyLifetimeSeconds(86400L);
+        jwtConfig.setRevocationExpectedTokens(1000);
+        jwtConfig.setRevocationFalsePositiveRate(0.01);
+        open();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        storageEngine.close();
+    }
+
+    @Test
+    void rotatesEveryTokenIntoANewOne() {
+        String first = refreshTokenStore.issue("linda");
+
+        RefreshTokenStore.Rotation rotation = refreshTokenStore.rotate(first);
+        assertThat(rotation.getOutcome()).isEqualTo(SUCCESS);
+        assertThat(rotation.getUsername()).isEqualTo("linda");
+        assertThat(rotation.getRefreshToken()).isNotEqualTo(first);
+
+        assertThat(refreshTokenStore.rotate(rotation.getRefreshToken()).getOutcome()).isEqualTo(SUCCESS);
+        assertThat(refreshTokenStore.rotate("not a token").getOutcome()).isEqualTo(BAD_CREDENTIALS);
+    }
+
+    @Test
+    void revokesTheWholeFamilyWhenARotatedTokenComesBack() {
+        String stolen = refreshTokenStore.issue("linda");
+        String current = refreshTokenStore.rotate(stolen).getRefreshToken();
+        String otherLogin = refreshTokenStore.issue("linda");
+
+        assertThat(refreshTokenStore.rotate(stolen).getOutcome()).isEqualTo(REUSED);
+        assertThat(refreshTokenStore.rotate(current).getOutcome()).isEqualTo(BAD_CREDENTIALS);
+        assertThat(refreshTokenStore.rotate(stolen).getOutcome()).isEqualTo(BAD_CREDENTIALS);
+        assertThat(refreshTokenStore.rotate(otherLogin).getOutcome()).isEqualTo(SUCCESS);
+        assertThat(refreshTokenStore.getFamilyCount()).isEqualTo(1);
+    }
+
+    @Test
+    void remembersOnlyTheLastRotations() {
+        List<String> tokens = new ArrayList<>();
+        tokens.add(refreshTokenStore.issue("linda"));
+        for (int i = 0; i < 20; i++) {
+            tokens.add(refreshTokenStore.rotate(tokens.get(i)).getRefreshToken());
+        }
+
+        assertThat(refreshTokenStore.rotate(tokens.get(0)).getOutcome()).isEqualTo(BAD_CREDENTIALS);
+        assertThat(refreshTokenStore.rotate(tokens.get(19)).getOutcome()).isEqualTo(REUSED);
+    }
+
+    @Test
+    void expiresATokenThatIsNotRotatedInTime() {
+        jwtConfig.setRefreshTokenExpirationSeconds(0L);
+        String token = refreshTokenStore.issue("linda");
+
+        assertThat(refreshTokenStore.rotate(token).getOutcome()).isEqualTo(EXPIRED);
+        assertThat(refreshTokenStore.getFamilyCount()).isZero();
+    }
+
+    @Test
+    void endsAFamilyAtItsLifetimeHoweverOftenItIsRotated() throws InterruptedException {
+        jwtConfig.setRefreshTokenFamilyLifetimeSeconds(1L);
+        String token = refreshTokenStore.issue("linda");
+        token = refreshTokenStore.rotate(token).getRefreshToken();
+        assertThat(token).isNotNull();
+
+        Thread.sleep(1100);
+        assertThat(refreshTokenStore.rotate(token).getOutcome()).isEqualTo(EXPIRED);
+    }
+
+    @Test
+    void endsFamiliesStartedBeforeARevokeAll() {
+        String token = refreshTokenStore.issue("linda");
+        tokenRevocationService.revokeAll("linda");
+
+        assertThat(refreshTokenStore.rotate(token).getOutcome()).isEqualTo(REVOKED);
+    }
+
+    @Test
+    void keepsTheCurrentTokenAcrossARestart() throws IOException {
+        String rotated = refreshTokenStore.issue("linda");
+        String current = refreshTokenStore.rotate(rotated).getRefreshToken();
+        String revoked = refreshTokenStore.issue("annasmith");
+        refreshTokenStore.revoke(revoked);
+
+        storageEngine.close();
+        open();
+        assertThat(refreshTokenStore.getFamilyCount()).isEqualTo(1);
+        assertThat(refreshTokenStore.rotate(rotated).getOutcome()).isEqualTo(BAD_CREDENTIALS);
+        assertThat(refreshTokenStore.rotate(revoked).getOutcome()).isEqualTo(BAD_CREDENTIALS);
+        assertThat(refreshTokenStore.rotate(current).getOutcome()).isEqualTo(SUCCESS);
+    }
+
+    private void open() {
+        StorageConfig storageConfig = new StorageConfig();
+        storageConfig.setEnabled(true);
+        storageConfig.setDirectory(directory.toString());
+        storageConfig.setGrowBytes(64 * 1024);
+        storageConfig.setCompactionGarbageRatio(0.5);
+        storageEngine = new StorageEngine(storageConfig);
+        tokenRevocationService = new TokenRevocationService(jwtConfig, storageEngine);
+        refreshTokenStore = new RefreshTokenStore(jwtConfig, tokenRevocationService, storageEngine);
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.demo.jwt;
+
+import com.example.demo.storage.StorageConfig;
+import com.example.demo.storage.StorageEngine;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenRevocationServiceTest {
+
+    @TempDir
+    Path directory;
+
+    private StorageEngine storageEngine;
+    private TokenRevocationService tokenRevocationService;
+
+    @BeforeEach
+    void setUp() {
+        open();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        storageEngine.close();
+    }
+
+    @Test
+    void rejectsARevokedTokenId() {
+        String revoked = tokenRevocationService.newTokenId();
+        String other = tokenRevocationService.newTokenId();
+        tokenRevocationService.revoke(revoked);
+
+        assertThat(tokenRevocationService.isRevoked("linda", revoked, 0)).isTrue();
+        assertThat(tokenRevocationService.isRevoked("linda", other, 0)).isFalse();
+        assertThat(tokenRevocationService.isRevoked("linda", null, 0)).isFalse();
+    }
+
+    @Test
+    void rejectsTokensMintedBeforeARevokeAll() {
+        int generation = tokenRevocationService.generationOf("linda");
+        tokenRevocationService.revokeAll("linda");
+
+        assertThat(tokenRevocationService.isRevoked("linda", null, generation)).isTrue();
+        assertThat(tokenRevocationService.isRevoked("linda", null, tokenRevocationService.generationOf("linda"))).isFalse();
+        assertThat(tokenRevocationService.isRevoked("annasmith", null, generation)).isFalse();
+    }
+
+    @Test
+    void keepsRevocationsAcrossARestart() throws IOException {
+        String revoked = tokenRevocationService.newTokenId();
+        tokenRevocationService.revoke(revoked);
+        int generation = tokenRevocationService.revokeAll("linda");
+
+        storageEngine.close();
+        open();
+        assertThat(tokenRevocationService.isRevoked("annasmith", revoked, 0)).isTrue();
+        assertThat(tokenRevocationService.generationOf("linda")).isEqualTo(generation);
+        assertThat(tokenRevocationService.isRevoked("linda", null, generation - 1)).isTrue();
+    }
+
+    @Test
+    void checksABloomFilterHitAgainstTheRevokedSet() {
+        // Same String.hashCode, so the filter cannot tell them apart
+        assertThat("Aa".hashCode()).isEqualTo("BB".hashCode());
+        tokenRevocationService.revoke("Aa");
+
+        assertThat(tokenRevocationService.isRevoked("linda", "Aa", 0)).isTrue();
+        assertThat(tokenRevocationService.isRevoked("linda", "BB", 0)).isFalse();
+    }
+
+    @Test
+    void forgetsRevocationsOnceTheTokenHasExpired() throws IOException {
+        String expired = tokenRevocationService.newTokenId();
+        String live = tokenRevocationService.newTokenId();
+        tokenRevocationService.revoke(expired, System.currentTimeMillis() - 1);
+        tokenRevocationService.revoke(live);
+
+        tokenRevocationService.purgeExpired();
+        assertThat(tokenRevocationService.getRevokedTokenCount()).isEqualTo(1);
+        assertThat(tokenRevocationService.isRevoked("linda", live, 0)).isTrue();
+
+        storageEngine.close();
+        open();
+        assertThat(tokenRevocationService.getRevokedTokenCount()).isEqualTo(1);
+    }
+
+    @Test
+    void rejectsTokensRevokedWhileThePurgeRebuildsTheFilter() throws InterruptedException {
+        List<String> revoked = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            revoked.add(tokenRevocationService.newTokenId());
+        }
+        Thread revoker = new Thread(() -> revoked.forEach(tokenRevocationService::revoke));
+        revoker.start();
+        while (revoker.isAlive()) {
+            tokenRevocationService.purgeExpired();
+        }
+        revoker.join();
+
+        assertThat(revoked).allMatch(tokenId -> tokenRevocationService.isRevoked("linda", tokenId, 0));
+    }
+
+    private void open() {
+        StorageConfig storageConfig = new StorageConfig();
+        storageConfig.setEnabled(true);
+        storageConfig.setDirectory(directory.toString());
+        storageConfig.setGrowBytes(64 * 1024);
+        storageConfig.setCompactionGarbageRatio(0.5);
+        storageEngine = new StorageEngine(storageConfig);
+
+        JwtConfig jwtConfig = new JwtConfig();
+        jwtConfig.setAccessTokenExpirationSeconds(900L);
+        jwtConfig.setRevocationExpectedTokens(1000);
+        jwtConfig.setRevocationFalsePositiveRate(0.01);
+        tokenRevocationService = new TokenRevocationService(jwtConfig, storageEngine);
+    }
+}
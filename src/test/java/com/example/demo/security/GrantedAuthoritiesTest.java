@@ -0,0 +1,83 @@
+package com.example.demo.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static com.example.demo.security.ApplicationUserPermission.*;
+import static com.example.demo.security.ApplicationUserRole.ADMIN;
+import static com.example.demo.security.ApplicationUserRole.ADMINTRAINEE;
+import static com.example.demo.security.ApplicationUserRole.STUDENT;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Tokens already issued carry these bits. A change here changes what those tokens grant: add new
+// permissions and roles on unused bits instead, and never move or reuse one.
+class GrantedAuthoritiesTest {
+
+    @Test
+    void keepsEveryMaskBitWhereItIs() {
+        Map<ApplicationUserPermission, Integer> permissionBits = EnumSet.allOf(ApplicationUserPermission.class).stream()
+                .collect(Collectors.toMap(permission -> permission, ApplicationUserPermission::getMaskBit));
+        Map<ApplicationUserRole, Integer> roleBits = EnumSet.allOf(ApplicationUserRole.class).stream()
+                .collect(Collectors.toMap(role -> role, ApplicationUserRole::getMaskBit));
+
+        assertThat(permissionBits).containsOnly(
+                Map.entry(STUDENT_READ, 0),
+                Map.entry(STUDENT_WRITE, 1),
+                Map.entry(COURSE_READ, 2),
+                Map.entry(COURSE_WRITE, 3)
+        );
+        assertThat(roleBits).containsOnly(
+                Map.entry(STUDENT, 4),
+                Map.entry(ADMIN, 5),
+                Map.entry(ADMINTRAINEE, 6)
+        );
+    }
+
+    @Test
+    void givesEveryAuthorityABitOfItsOwn() {
+        assertThat(GrantedAuthorities.checkMaskBits())
+                .filteredOn(grantedAuthority -> grantedAuthority != null)
+                .hasSize(ApplicationUserPermission.values().length + ApplicationUserRole.values().length)
+                .doesNotHaveDuplicates();
+    }
+
+    @Test
+    void rejectsClashingAndOutOfRangeBits() {
+        GrantedAuthority[] maskAuthorities = new GrantedAuthority[31];
+        GrantedAuthorities.assignBit(maskAuthorities, 5, ADMIN.getGrantedAuthority());
+
+        assertThatThrownBy(() -> GrantedAuthorities.assignBit(maskAuthorities, 5, ADMINTRAINEE.getGrantedAuthority()))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("used by both");
+        assertThatThrownBy(() -> GrantedAuthorities.assignBit(maskAuthorities, 31, ADMINTRAINEE.getGrantedAuthority()))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> GrantedAuthorities.assignBit(maskAuthorities, -1, ADMINTRAINEE.getGrantedAuthority()))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void encodesEachRoleToTheSameMask() {
+        assertThat(GrantedAuthorities.toMask(STUDENT.getGrantedAuthorities())).isEqualTo(0b0010000);
+        assertThat(GrantedAuthorities.toMask(ADMIN.getGrantedAuthorities())).isEqualTo(0b0101111);
+        assertThat(GrantedAuthorities.toMask(ADMINTRAINEE.getGrantedAuthorities())).isEqualTo(0b1000101);
+    }
+
+    @Test
+    void decodesARoleMaskToTheRolesOwnAuthorities() {
+        for (ApplicationUserRole role : ApplicationUserRole.values()) {
+            assertThat(GrantedAuthorities.fromMask(GrantedAuthorities.toMask(role.getGrantedAuthorities())))
+                    .isSameAs(role.getGrantedAuthorities());
+        }
+    }
+
+    @Test
+    void rejectsBitsNoAuthorityOwns() {
+        assertThatThrownBy(() -> GrantedAuthorities.fromMask(1 << 7)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> GrantedAuthorities.fromMask(-1)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.demo.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LoginThrottleTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void letsAFullBurstThroughAndThenOneTokenPerInterval() {
+        // 5 tokens per 10 seconds, one freed every 2 seconds
+        LoginThrottle.Limit limit = new LoginThrottle.Limit(5, 10);
+        AtomicLong bucket = new AtomicLong(Long.MIN_VALUE);
+        long now = 1000 * SECOND;
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(limit.acquire(bucket, now)).isZero();
+        }
+        assertThat(limit.acquire(bucket, now)).isEqualTo(2 * SECOND);
+        assertThat(limit.acquire(bucket, now + 2 * SECOND - 1)).isEqualTo(1);
+
+        assertThat(limit.acquire(bucket, now + 2 * SECOND)).isZero();
+        assertThat(limit.acquire(bucket, now + 2 * SECOND)).isEqualTo(2 * SECOND);
+    }
+
+    @Test
+    void refillsNoMoreThanOneBurstWhileIdle() {
+        LoginThrottle.Limit limit = new LoginThrottle.Limit(5, 10);
+        AtomicLong bucket = new AtomicLong(Long.MIN_VALUE);
+        long now = 1000 * SECOND;
+        for (int i = 0; i < 5; i++) {
+            limit.acquire(bucket, now);
+        }
+
+        long later = now + 3600 * SECOND;
+        for (int i = 0; i < 5; i++) {
+            assertThat(limit.acquire(bucket, later)).isZero();
+        }
+        assertThat(limit.acquire(bucket, later)).isPositive();
+    }
+
+    @Test
+    void turnsAnAddressAwayWithARetryAfterOnceItsBurstIsUsed() {
+        LoginThrottle loginThrottle = loginThrottle(3, 60, 5, 300);
+        for (int i = 0; i < 3; i++) {
+            loginThrottle.acquireAddress("10.0.0.1");
+        }
+
+        assertThatThrownBy(() -> loginThrottle.acquireAddress("10.0.0.1"))
+                .isInstanceOfSatisfying(LoginThrottledException.class,
+                        e -> assertThat(e.getRetryAfterSeconds()).isEqualTo(20L));
+        loginThrottle.acquireAddress("10.0.0.2");
+    }
+
+    @Test
+    void locksAUsernameAfterTooManyFailures() {
+        LoginThrottle loginThrottle = loginThrottle(30, 60, 3, 300);
+        for (int i = 0; i < 3; i++) {
+            assertThat(loginThrottle.isUsernameLocked("linda")).isFalse();
+            loginThrottle.checkUsername("linda");
+            loginThrottle.recordFailure("linda");
+        }
+
+        assertThat(loginThrottle.isUsernameLocked("linda")).isTrue();
+        assertThat(loginThrottle.isUsernameLocked("tom")).isFalse();
+        assertThatThrownBy(() -> loginThrottle.checkUsername("linda"))
+                .isInstanceOfSatisfying(LoginThrottledException.class,
+                        e -> assertThat(e.getRetryAfterSeconds()).isEqualTo(100L));
+    }
+
+    @Test
+    void startsOverAfterASuccessfulLogin() {
+        LoginThrottle loginThrottle = loginThrottle(30, 60, 3, 300);
+        loginThrottle.recordFailure("linda");
+        loginThrottle.recordFailure("linda");
+        loginThrottle.recordSuccess("linda");
+
+        loginThrottle.recordFailure("linda");
+        loginThrottle.recordFailure("linda");
+        assertThat(loginThrottle.isUsernameLocked("linda")).isFalse();
+        loginThrottle.recordFailure("linda");
+        assertThat(loginThrottle.isUsernameLocked("linda")).isTrue();
+    }
+
+    @Test
+    void letsEverythingThroughWhenDisabled() {
+        LoginThrottleConfig loginThrottleConfig = config(1, 60, 1, 300);
+        loginThrottleConfig.setEnabled(false);
+        LoginThrottle loginThrottle = new LoginThrottle(loginThrottleConfig, new SimpleMeterRegistry());
+
+        for (int i = 0; i < 10; i++) {
+            loginThrottle.acquireAddress("10.0.0.1");
+            loginThrottle.recordFailure("linda");
+        }
+        assertThat(loginThrottle.isUsernameLocked("linda")).isFalse();
+    }
+
+    private static LoginThrottle loginThrottle(int addressAttempts, long addressPeriodSeconds,
+                                               int usernameFailures, long usernamePeriodSeconds) {
+        return new LoginThrottle(
+                config(addressAttempts, addressPeriodSeconds, usernameFailures, usernamePeriodSeconds),
+                new SimpleMeterRegistry()
+        );
+    }
+
+    private static LoginThrottleConfig config(int addressAttempts, long addressPeriodSeconds,
+                                              int usernameFailures, long usernamePeriodSeconds) {
+        LoginThrottleConfig loginThrottleConfig = new LoginThrottleConfig();
+        loginThrottleConfig.setEnabled(true);
+        loginThrottleConfig.setAddressAttempts(addressAttempts);
+        loginThrottleConfig.setAddressPeriodSeconds(addressPeriodSeconds);
+        loginThrottleConfig.setUsernameFailures(usernameFailures);
+        loginThrottleConfig.setUsernamePeriodSeconds(usernamePeriodSeconds);
+        loginThrottleConfig.setMaximumKeys(1000L);
+        return loginThrottleConfig;
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.demo.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PasswordConfigTest {
+
+    private final PasswordEncoder passwordEncoder = PasswordConfig.delegatingPasswordEncoder(new AdaptiveBCryptPasswordEncoder(4));
+
+    @Test
+    void storesHashesWithTheBcryptId() {
+        String encoded = passwordEncoder.encode("password");
+
+        assertThat(encoded).startsWith("{bcrypt}$2a$04$");
+        assertThat(passwordEncoder.matches("password", encoded)).isTrue();
+        assertThat(passwordEncoder.upgradeEncoding(encoded)).isFalse();
+    }
+
+    @Test
+    void matchesAndUpgradesHashesWithoutAnId() {
+        String legacy = new BCryptPasswordEncoder(4).encode("password");
+
+        assertThat(passwordEncoder.matches("password", legacy)).isTrue();
+        assertThat(passwordEncoder.matches("wrong", legacy)).isFalse();
+        assertThat(passwordEncoder.upgradeEncoding(legacy)).isTrue();
+    }
+
+    @Test
+    void upgradesHashesOfAnotherCost() {
+        String weaker = "{bcrypt}" + new BCryptPasswordEncoder(5).encode("password");
+
+        assertThat(passwordEncoder.matches("password", weaker)).isTrue();
+        assertThat(passwordEncoder.upgradeEncoding(weaker)).isTrue();
+    }
+}
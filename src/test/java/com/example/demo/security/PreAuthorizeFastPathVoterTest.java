@@ -0,0 +1,77 @@
+package com.example.demo.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.access.AccessDecisionVoter;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.util.SimpleMethodInvocation;
+
+import java.lang.reflect.Method;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PreAuthorizeFastPathVoterTest {
+
+    private final PreAuthorizeFastPathVoter voter = new PreAuthorizeFastPathVoter();
+
+    @Test
+    void resolvesAnInterfaceMethodAgainstEachImplementation() throws NoSuchMethodException {
+        Method method = Action.class.getMethod("perform");
+        Authentication student = authentication("ROLE_STUDENT");
+        Authentication admin = authentication("ROLE_ADMIN");
+
+        assertThat(vote(student, new StudentAction(), method)).isEqualTo(AccessDecisionVoter.ACCESS_GRANTED);
+        assertThat(vote(student, new AdminAction(), method)).isEqualTo(AccessDecisionVoter.ACCESS_DENIED);
+        assertThat(vote(admin, new AdminAction(), method)).isEqualTo(AccessDecisionVoter.ACCESS_GRANTED);
+        assertThat(vote(admin, new StudentAction(), method)).isEqualTo(AccessDecisionVoter.ACCESS_DENIED);
+        assertThat(vote(admin, new UnannotatedAction(), method)).isEqualTo(AccessDecisionVoter.ACCESS_ABSTAIN);
+    }
+
+    @Test
+    void compilesOnlySimpleRules() {
+        assertThat(PreAuthorizeFastPathVoter.compile("hasAnyRole('ADMIN', 'ROLE_ADMINTRAINEE')"))
+                .hasValueSatisfying(authorities -> assertThat(authorities).containsExactlyInAnyOrder("ROLE_ADMIN", "ROLE_ADMINTRAINEE"));
+        assertThat(PreAuthorizeFastPathVoter.compile("hasAuthority('student:write')"))
+                .hasValueSatisfying(authorities -> assertThat(authorities).containsExactly("student:write"));
+        assertThat(PreAuthorizeFastPathVoter.compile("hasRole('ADMIN') and hasAuthority('student:write')")).isEmpty();
+        assertThat(PreAuthorizeFastPathVoter.compile("#studentId == principal.id")).isEmpty();
+    }
+
+    private int vote(Authentication authentication, Action target, Method method) {
+        return voter.vote(authentication, new SimpleMethodInvocation(target, method), List.of());
+    }
+
+    private static Authentication authentication(String authority) {
+        return new UsernamePasswordAuthenticationToken("user", null, AuthorityUtils.createAuthorityList(authority));
+    }
+
+    interface Action {
+        void perform();
+    }
+
+    static class StudentAction implements Action {
+
+        @Override
+        @PreAuthorize("hasRole('STUDENT')")
+        public void perform() {
+        }
+    }
+
+    static class AdminAction implements Action {
+
+        @Override
+        @PreAuthorize("hasRole('ADMIN')")
+        public void perform() {
+        }
+    }
+
+    static class UnannotatedAction implements Action {
+
+        @Override
+        public void perform() {
+        }
+    }
+}
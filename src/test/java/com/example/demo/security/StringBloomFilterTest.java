@@ -0,0 +1,44 @@
+package com.example.demo.security;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StringBloomFilterTest {
+
+    @Test
+    void findsEveryKeyThatWasPut() {
+        StringBloomFilter filter = new StringBloomFilter(1000, 0.01);
+        for (int i = 0; i < 1000; i++) {
+            filter.put("token-" + i);
+        }
+
+        for (int i = 0; i < 1000; i++) {
+            assertThat(filter.mightContain("token-" + i)).isTrue();
+        }
+    }
+
+    @Test
+    void staysNearTheConfiguredFalsePositiveRate() {
+        StringBloomFilter filter = new StringBloomFilter(1000, 0.01);
+        for (int i = 0; i < 1000; i++) {
+            filter.put("token-" + i);
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (filter.mightContain("other-" + i)) {
+                falsePositives++;
+            }
+        }
+        assertThat(falsePositives).isLessThan(300);
+    }
+
+    @Test
+    void cannotTellApartKeysWithTheSameHashCode() {
+        StringBloomFilter filter = new StringBloomFilter(1000, 0.01);
+        filter.put("Aa");
+
+        assertThat(filter.mightContain("BB")).isTrue();
+    }
+}
@@ -0,0 +1,188 @@
+package com.example.demo.storage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RecordLogTest {
+
+    private static final int GROW_BYTES = 4096;
+    // int length | int crc | byte type | short keyLength
+    private static final int RECORD_OVERHEAD = 11;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void readsBackTheLatestValueOfEveryLiveKey() throws IOException {
+        Path file = directory.resolve("records.log");
+        try (RecordLog recordLog = new RecordLog(file, GROW_BYTES)) {
+            recordLog.put("a", bytes("1"));
+            recordLog.put("b", bytes("2"));
+            recordLog.put("a", bytes("3"));
+            recordLog.delete("b");
+        }
+
+        try (RecordLog recordLog = new RecordLog(file, GROW_BYTES)) {
+            assertThat(contents(recordLog)).containsOnly(Map.entry("a", "3"));
+        }
+    }
+
+    @Test
+    void growsPastTheInitialMapping() throws IOException {
+        Path file = directory.resolve("records.log");
+        try (RecordLog recordLog = new RecordLog(file, GROW_BYTES)) {
+            for (int i = 0; i < 1000; i++) {
+                recordLog.put("key-" + i, bytes("value-" + i));
+            }
+        }
+
+        try (RecordLog recordLog = new RecordLog(file, GROW_BYTES)) {
+            assertThat(recordLog.size()).isEqualTo(1000);
+            assertThat(contents(recordLog)).containsEntry("key-999", "value-999");
+        }
+    }
+
+    @Test
+    void dropsATruncatedTailAndKeepsAppending() throws IOException {
+        Path file = directory.resolve("records.log");
+        int tailOffset;
+        try (RecordLog recordLog = new RecordLog(file, GROW_BYTES)) {
+            recordLog.put("a", bytes("1"));
+            tailOffset = (int) recordLog.getLogBytes();
+            recordLog.put("b", bytes("2"));
+        }
+        // A crash after the length went in but before the rest of the record reached the disk
+        overwrite(file, tailOffset + RECORD_OVERHEAD, new byte[3]);
+
+        try (RecordLog recordLog = new RecordLog(file, GROW_BYTES)) {
+            assertThat(contents(recordLog)).containsOnly(Map.entry("a", "1"));
+            assertThat(recordLog.getLogBytes()).isEqualTo(tailOffset);
+            recordLog.put("c", bytes("3"));
+        }
+
+        try (RecordLog recordLog = new RecordLog(file, GROW_BYTES)) {
+            assertThat(contents(recordLog)).containsOnly(Map.entry("a", "1"), Map.entry("c", "3"));
+        }
+    }
+
+    @Test
+    void stopsAtARecordWhoseCrcDoesNotMatch() throws IOException {
+        Path file = directory.resolve("records.log");
+        int secondOffset;
+        try (RecordLog recordLog = new RecordLog(file, GROW_BYTES)) {
+            recordLog.put("a", bytes("1"));
+            secondOffset = (int) recordLog.getLogBytes();
+            recordLog.put("b", bytes("2"));
+            recordLog.put("c", bytes("3"));
+        }
+        // Flip the last byte of b's value
+        overwrite(file, secondOffset + RECORD_OVERHEAD + 1, bytes("X"));
+
+        try (RecordLog recordLog = new RecordLog(file, GROW_BYTES)) {
+            assertThat(contents(recordLog)).containsOnly(Map.entry("a", "1"));
+        }
+    }
+
+    @Test
+    void treatsAnOverflowingLengthAsTheEndOfTheLog() throws IOException {
+        Path file = directory.resolve("records.log");
+        int tailOffset;
+        try (RecordLog recordLog = new RecordLog(file, GROW_BYTES)) {
+            recordLog.put("a", bytes("1"));
+            tailOffset = (int) recordLog.getLogBytes();
+        }
+        overwrite(file, tailOffset, ByteBuffer.allocate(Integer.BYTES).putInt(Integer.MAX_VALUE - 4).array());
+
+        try (RecordLog recordLog = new RecordLog(file, GROW_BYTES)) {
+            assertThat(contents(recordLog)).containsOnly(Map.entry("a", "1"));
+            assertThat(recordLog.getLogBytes()).isEqualTo(tailOffset);
+        }
+    }
+
+    @Test
+    void keepsOnlyLiveRecordsAfterACompaction() throws IOException {
+        Path file = directory.resolve("records.log");
+        try (RecordLog recordLog = new RecordLog(file, GROW_BYTES)) {
+            for (int i = 0; i < 100; i++) {
+                recordLog.put("key-" + (i % 10), bytes("value-" + i));
+            }
+            recordLog.delete("key-0");
+            recordLog.compact();
+
+            assertThat(recordLog.getLogBytes()).isEqualTo(recordLog.getLiveBytes());
+            assertThat(recordLog.size()).isEqualTo(9);
+            recordLog.put("key-0", bytes("again"));
+        }
+
+        try (RecordLog recordLog = new RecordLog(file, GROW_BYTES)) {
+            Map<String, String> contents = contents(recordLog);
+            assertThat(contents).hasSize(10)
+                    .containsEntry("key-0", "again")
+                    .containsEntry("key-9", "value-99");
+            assertThat(file.resolveSibling("records.log.compacting")).doesNotExist();
+        }
+    }
+
+    @Test
+    void keepsGrowingTheCompactedFile() throws IOException {
+        Path file = directory.resolve("records.log");
+        try (RecordLog recordLog = new RecordLog(file, GROW_BYTES)) {
+            recordLog.put("a", bytes("1"));
+            recordLog.delete("a");
+            recordLog.compact();
+            for (int i = 0; i < 1000; i++) {
+                recordLog.put("key-" + i, bytes("value-" + i));
+            }
+            recordLog.compact();
+            recordLog.put("last", bytes("again"));
+        }
+
+        try (RecordLog recordLog = new RecordLog(file, GROW_BYTES)) {
+            assertThat(recordLog.size()).isEqualTo(1001);
+            assertThat(contents(recordLog)).containsEntry("key-999", "value-999").containsEntry("last", "again");
+        }
+    }
+
+    @Test
+    void rejectsKeysTheLengthFieldCannotHold() throws IOException {
+        Path file = directory.resolve("records.log");
+        try (RecordLog recordLog = new RecordLog(file, GROW_BYTES)) {
+            assertThatThrownBy(() -> recordLog.put("k".repeat(Short.MAX_VALUE + 1), bytes("1")))
+                    .isInstanceOf(IllegalArgumentException.class);
+            recordLog.put("k".repeat(Short.MAX_VALUE), bytes("1"));
+            assertThat(recordLog.size()).isEqualTo(1);
+        }
+
+        try (RecordLog recordLog = new RecordLog(file, GROW_BYTES)) {
+            assertThat(contents(recordLog)).containsOnly(Map.entry("k".repeat(Short.MAX_VALUE), "1"));
+        }
+    }
+
+    private static Map<String, String> contents(RecordLog recordLog) {
+        Map<String, String> contents = new HashMap<>();
+        recordLog.forEach((key, value) -> contents.put(key, new String(value, StandardCharsets.UTF_8)));
+        return contents;
+    }
+
+    private static void overwrite(Path file, int offset, byte[] bytes) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(bytes), offset);
+        }
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.demo.student;
+
+import com.example.demo.audit.AuditConfig;
+import com.example.demo.audit.AuditLog;
+import com.example.demo.storage.StorageConfig;
+import com.example.demo.storage.StorageEngine;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StudentBulkProcessorTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private StudentRepository studentRepository;
+    private StudentResponseCache studentResponseCache;
+    private StudentBulkProcessor studentBulkProcessor;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        StorageConfig storageConfig = new StorageConfig();
+        storageConfig.setEnabled(false);
+
+        StudentConfig studentConfig = new StudentConfig();
+        studentConfig.setMaximumStudentId(1000);
+        studentConfig.setBulkBatchSize(2);
+        studentConfig.setResponseCacheMaximumSize(100L);
+
+        AuditConfig auditConfig = new AuditConfig();
+        auditConfig.setEnabled(false);
+        auditConfig.setBufferCapacity(16);
+        auditConfig.setBatchSize(16);
+        auditConfig.setIdleMillis(1L);
+
+        studentRepository = new StudentRepository(new StorageEngine(storageConfig), studentConfig);
+        studentResponseCache = new StudentResponseCache(objectMapper, studentConfig);
+        studentBulkProcessor = new StudentBulkProcessor(
+                studentRepository,
+                studentResponseCache,
+                new AuditLog(auditConfig, new SimpleMeterRegistry()),
+                objectMapper,
+                studentConfig
+        );
+    }
+
+    @Test
+    void reportsEveryRecordOfAMixedNdjsonRequest() throws IOException {
+        List<JsonNode> results = ndjson(
+                "{\"op\":\"insert\",\"studentName\":\"New Student\"}\n"
+                        + "{\"op\":\"update\",\"studentId\":2,\"studentName\":\"Maria Smith\"}\n"
+                        + "{\"op\":\"update\",\"studentId\":99,\"studentName\":\"Nobody\"}\n"
+                        + "{\"op\":\"delete\"}\n"
+                        + "{\"op\":\"expel\",\"studentId\":1}\n"
+                        + "{\"op\":\"delete\",\"studentId\":3}\n"
+        );
+
+        assertThat(results).extracting(result -> result.get("status").asText())
+                .containsExactly("ok", "ok", "failed", "failed", "failed", "ok");
+        assertThat(results).extracting(result -> result.get("index").asInt())
+                .containsExactly(0, 1, 2, 3, 4, 5);
+        assertThat(results.get(0).get("studentId").asInt()).isEqualTo(4);
+        assertThat(results.get(4).get("error").asText()).startsWith("Malformed record");
+
+        assertThat(studentRepository.selectStudentById(2)).get().extracting(Student::getStudentName).isEqualTo("Maria Smith");
+        assertThat(studentRepository.selectStudentById(3)).isEmpty();
+        assertThat(studentRepository.selectStudentById(1)).isPresent();
+    }
+
+    @Test
+    void stopsAtAMalformedLineAndKeepsWhatCameBefore() throws IOException {
+        List<JsonNode> results = ndjson(
+                "{\"studentName\":\"First\"}\n"
+                        + "{\"studentName\": oops\n"
+                        + "{\"studentName\":\"Never Read\"}\n"
+        );
+
+        assertThat(results).extracting(result -> result.get("status").asText()).containsExactly("ok", "failed");
+        assertThat(results.get(1).get("error").asText()).startsWith("Malformed body");
+        assertThat(studentRepository.countStudents()).isEqualTo(4);
+    }
+
+    @Test
+    void failsOnlyTheNullRecord() throws IOException {
+        List<JsonNode> ndjsonResults = ndjson("null\n{\"studentName\":\"After Null\"}\n");
+        assertThat(ndjsonResults).extracting(result -> result.get("status").asText()).containsExactly("failed", "ok");
+
+        JsonNode arrayResults = objectMapper.readTree(process("[null,{\"studentName\":\"After Null\"}]", true));
+        assertThat(arrayResults).extracting(result -> result.get("status").asText()).containsExactly("failed", "ok");
+        assertThat(studentRepository.countStudents()).isEqualTo(5);
+    }
+
+    @Test
+    void insertsARecordWithANullOp() throws IOException {
+        List<JsonNode> results = ndjson("{\"op\":null,\"studentName\":\"No Op\"}\n");
+
+        assertThat(results.get(0).get("status").asText()).isEqualTo("ok");
+        assertThat(results.get(0).get("op").asText()).isEqualTo("insert");
+        assertThat(studentRepository.selectStudentById(results.get(0).get("studentId").asInt()))
+                .get().extracting(Student::getStudentName).isEqualTo("No Op");
+    }
+
+    @Test
+    void answersAJsonArrayWithAJsonArray() throws IOException {
+        JsonNode results = objectMapper.readTree(process(
+                "[{\"studentName\":\"New Student\"},{\"op\":\"delete\",\"studentId\":99}]", true));
+
+        assertThat(results.isArray()).isTrue();
+        assertThat(results).extracting(result -> result.get("status").asText()).containsExactly("ok", "failed");
+    }
+
+    @Test
+    void answersAnEmptyBodyWithNoResults() throws IOException {
+        assertThat(process("", false)).isEmpty();
+        assertThat(objectMapper.readTree(process("", true))).isEmpty();
+        assertThat(objectMapper.readTree(process("[]", true))).isEmpty();
+        assertThat(studentRepository.countStudents()).isEqualTo(3);
+    }
+
+    @Test
+    void dropsCachedResponsesOfChangedStudents() throws IOException {
+        Student before = studentRepository.selectStudentById(2).orElseThrow();
+        studentResponseCache.serialize(before);
+
+        ndjson("{\"op\":\"update\",\"studentId\":2,\"studentName\":\"Maria Smith\"}\n");
+
+        Student after = studentRepository.selectStudentById(2).orElseThrow();
+        assertThat(new String(studentResponseCache.serialize(after), StandardCharsets.UTF_8)).contains("Maria Smith");
+        assertThat(studentResponseCache.etagOf(after)).isNotEqualTo(studentResponseCache.etagOf(before));
+    }
+
+    private List<JsonNode> ndjson(String body) throws IOException {
+        List<JsonNode> results = new ArrayList<>();
+        for (String line : process(body, false).split("\n")) {
+            results.add(objectMapper.readTree(line));
+        }
+        return results;
+    }
+
+    private String process(String body, boolean jsonArray) throws IOException {
+        ByteArrayOutputStream results = new ByteArrayOutputStream();
+        studentBulkProcessor.process(
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)),
+                results,
+                jsonArray,
+                "linda",
+                "127.0.0.1"
+        );
+        return results.toString(StandardCharsets.UTF_8);
+    }
+}
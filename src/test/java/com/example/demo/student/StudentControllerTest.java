@@ -0,0 +1,126 @@
+package com.example.demo.student;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class StudentControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private String studentToken;
+    private String adminToken;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        studentToken = login("annasmith");
+        adminToken = login("linda");
+    }
+
+    @Test
+    void answersAMatchingIfNoneMatchWithNotModifiedUntilTheStudentChanges() throws Exception {
+        String etag = getStudent(2)
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).isNotNull();
+
+        getStudent(2, etag)
+                .andExpect(status().isNotModified())
+                .andExpect(content().bytes(new byte[0]));
+
+        mockMvc.perform(put("/management/api/v1/students/2")
+                .header(HttpHeaders.AUTHORIZATION, adminToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"studentId\":2,\"studentName\":\"Maria Jones-Smith\"}"))
+                .andExpect(status().isOk());
+
+        MvcResult changed = getStudent(2, etag)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.studentName").value("Maria Jones-Smith"))
+                .andReturn();
+        String changedEtag = changed.getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(changedEtag).isNotNull().isNotEqualTo(etag);
+        getStudent(2, changedEtag).andExpect(status().isNotModified());
+    }
+
+    @Test
+    void servesTheNewStudentAfterABulkUpdate() throws Exception {
+        String etag = getStudent(1).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(post("/management/api/v1/students/bulk")
+                .header(HttpHeaders.AUTHORIZATION, adminToken)
+                .contentType(StudentBulkProcessor.APPLICATION_NDJSON_VALUE)
+                .content("{\"op\":\"update\",\"studentId\":1,\"studentName\":\"James Bond Jr\"}\n"))
+                .andExpect(status().isOk());
+
+        getStudent(1, etag)
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(etag)))
+                .andExpect(jsonPath("$.studentName").value("James Bond Jr"));
+    }
+
+    @Test
+    void neverServesADeletedStudentsBodyForItsId() throws Exception {
+        register(60, "Temporary");
+        String etag = getStudent(60).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(delete("/management/api/v1/students/60").header(HttpHeaders.AUTHORIZATION, adminToken))
+                .andExpect(status().isOk());
+        register(60, "Replacement");
+
+        getStudent(60, etag)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.studentName").value("Replacement"));
+
+        mockMvc.perform(delete("/management/api/v1/students/60").header(HttpHeaders.AUTHORIZATION, adminToken))
+                .andExpect(status().isOk());
+    }
+
+    private ResultActions getStudent(int studentId) throws Exception {
+        return mockMvc.perform(get("/api/v1/students/" + studentId).header(HttpHeaders.AUTHORIZATION, studentToken));
+    }
+
+    private ResultActions getStudent(int studentId, String ifNoneMatch) throws Exception {
+        return mockMvc.perform(get("/api/v1/students/" + studentId)
+                .header(HttpHeaders.AUTHORIZATION, studentToken)
+                .header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch));
+    }
+
+    private void register(int studentId, String studentName) throws Exception {
+        mockMvc.perform(post("/management/api/v1/students")
+                .header(HttpHeaders.AUTHORIZATION, adminToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"studentId\":" + studentId + ",\"studentName\":\"" + studentName + "\"}"))
+                .andExpect(status().isOk());
+    }
+
+    private String login(String username) throws Exception {
+        return mockMvc.perform(post("/login").content("{\"username\":\"" + username + "\",\"password\":\"password\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.AUTHORIZATION);
+    }
+}
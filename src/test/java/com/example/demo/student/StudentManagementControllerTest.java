@@ -0,0 +1,61 @@
+package com.example.demo.student;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class StudentManagementControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private String adminToken;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        adminToken = mockMvc.perform(post("/login").content("{\"username\":\"linda\",\"password\":\"password\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.AUTHORIZATION);
+    }
+
+    @Test
+    void rejectsPageSizesBelowOne() throws Exception {
+        mockMvc.perform(get("/management/api/v1/students").param("size", "0").header(HttpHeaders.AUTHORIZATION, adminToken))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/management/api/v1/students").param("size", "-1").header(HttpHeaders.AUTHORIZATION, adminToken))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/management/api/v1/students").param("page", "-1").header(HttpHeaders.AUTHORIZATION, adminToken))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void capsPageSizesAtTheConfiguredMaximum() throws Exception {
+        mockMvc.perform(get("/management/api/v1/students").param("size", "2147483647").header(HttpHeaders.AUTHORIZATION, adminToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(header().string(StudentManagementController.NEXT_CURSOR_HEADER, "2"));
+    }
+
+    @Test
+    void pagesOnFromTheCursor() throws Exception {
+        mockMvc.perform(get("/management/api/v1/students").param("after", "2").header(HttpHeaders.AUTHORIZATION, adminToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].studentId").value(3))
+                .andExpect(header().doesNotExist(StudentManagementController.NEXT_CURSOR_HEADER));
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.demo.student;
+
+import com.example.demo.storage.StorageConfig;
+import com.example.demo.storage.StorageEngine;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StudentRepositoryTest {
+
+    private static final int MAXIMUM_STUDENT_ID = 1000;
+
+    @TempDir
+    Path directory;
+
+    private StorageEngine storageEngine;
+    private StudentRepository studentRepository;
+
+    @BeforeEach
+    void setUp() {
+        studentRepository = open();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        storageEngine.close();
+    }
+
+    @Test
+    void rejectsAMissingNameWithoutChangingTheStudent() throws IOException {
+        assertThatThrownBy(() -> studentRepository.updateStudent(2, new Student(2, null)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> studentRepository.insertStudent(new Student(10, null)))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(studentRepository.selectStudentById(2)).get().extracting(Student::getStudentName).isEqualTo("Maria Jones");
+        assertThat(studentRepository.selectStudentById(10)).isEmpty();
+
+        reopen();
+        assertThat(studentRepository.selectStudentById(2)).get().extracting(Student::getStudentName).isEqualTo("Maria Jones");
+        assertThat(studentRepository.countStudents()).isEqualTo(3);
+    }
+
+    @Test
+    void keepsWritesAndDeletesAcrossARestart() throws IOException {
+        studentRepository.updateStudent(1, new Student(1, "Jane Bond"));
+        studentRepository.deleteStudentById(3);
+        studentRepository.insertStudent(new Student(null, "New Student"));
+
+        reopen();
+        assertThat(studentRepository.selectStudentById(1)).get().extracting(Student::getStudentName).isEqualTo("Jane Bond");
+        assertThat(studentRepository.selectStudentById(3)).isEmpty();
+        assertThat(studentRepository.selectStudentById(4)).get().extracting(Student::getStudentName).isEqualTo("New Student");
+    }
+
+    @Test
+    void rejectsIdsOutsideTheConfiguredRange() {
+        assertThatThrownBy(() -> studentRepository.insertStudent(new Student(-1, "Negative")))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> studentRepository.insertStudent(new Student(MAXIMUM_STUDENT_ID + 1, "Too Large")))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> studentRepository.insertStudent(new Student(Integer.MAX_VALUE, "Largest")))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(studentRepository.insertStudent(new Student(null, "Next")).getStudentId()).isEqualTo(4);
+    }
+
+    @Test
+    void handsOutIdsPastAnExplicitOne() {
+        studentRepository.insertStudent(new Student(500, "Explicit"));
+
+        assertThat(studentRepository.insertStudent(new Student(null, "Generated")).getStudentId()).isEqualTo(501);
+    }
+
+    @Test
+    void givesEveryWriteANewVersion() {
+        long inserted = studentRepository.insertStudent(new Student(20, "First")).getVersion();
+        long updated = studentRepository.updateStudent(20, new Student(20, "Second")).getVersion();
+
+        assertThat(updated).isGreaterThan(inserted);
+        assertThat(studentRepository.selectStudentById(20)).get().extracting(Student::getVersion).isEqualTo(updated);
+    }
+
+    private void reopen() throws IOException {
+        storageEngine.close();
+        studentRepository = open();
+    }
+
+    private StudentRepository open() {
+        StorageConfig storageConfig = new StorageConfig();
+        storageConfig.setEnabled(true);
+        storageConfig.setDirectory(directory.toString());
+        storageConfig.setGrowBytes(64 * 1024);
+        storageConfig.setCompactionGarbageRatio(0.5);
+        storageEngine = new StorageEngine(storageConfig);
+
+        StudentConfig studentConfig = new StudentConfig();
+        studentConfig.setMaximumStudentId(MAXIMUM_STUDENT_ID);
+        return new StudentRepository(storageEngine, studentConfig);
+    }
+}
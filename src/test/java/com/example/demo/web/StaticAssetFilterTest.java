@@ -0,0 +1,52 @@
+package com.example.demo.web;
+
+import com.example.demo.security.ApplicationSecurityConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StaticAssetFilterTest {
+
+    @Test
+    void servesThePublicAssetsFromMemory() throws Exception {
+        StaticAssetFilter filter = new StaticAssetFilter(config(), ApplicationSecurityConfig.PUBLIC_ASSET_PATTERNS);
+
+        for (String path : new String[]{"/", "/index.html"}) {
+            MockFilterChain chain = new MockFilterChain();
+            MockHttpServletResponse response = get(filter, path, chain);
+
+            assertThat(chain.getRequest()).isNull();
+            assertThat(response.getContentType()).startsWith("text/html");
+            assertThat(response.getContentAsByteArray()).isNotEmpty();
+        }
+    }
+
+    @Test
+    void leavesFilesOutsideThePublicPatternsToTheSecurityChain() throws Exception {
+        StaticAssetFilter filter = new StaticAssetFilter(config(), "/css/**", "/js/**");
+
+        MockFilterChain chain = new MockFilterChain();
+        get(filter, "/index.html", chain);
+
+        assertThat(chain.getRequest()).isNotNull();
+    }
+
+    private static MockHttpServletResponse get(StaticAssetFilter filter, String path, MockFilterChain chain) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.setServletPath(path);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private static StaticAssetConfig config() {
+        StaticAssetConfig staticAssetConfig = new StaticAssetConfig();
+        staticAssetConfig.setEnabled(true);
+        staticAssetConfig.setMaxAgeSeconds(3600L);
+        staticAssetConfig.setMaxCachedBytes(1024 * 1024);
+        return staticAssetConfig;
+    }
+}